@@ -0,0 +1,91 @@
+package elevator;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Построение плана назначения пакета вызовов: жадный выбор против
+ * оптимального (венгерский алгоритм по матрице вызов x лифт).
+ * Лифты не меняются - каждый раз планируется один и тот же пакет
+ * по одним и тем же снимкам парка. Цель: 200 вызовов x 64 лифта быстрее 1 мс.
+ * Вызовы пакета все разные (одинаковые планировщик склеивает, и пакет
+ * фактически был бы меньше): случайная выборка без повторов из всех вызовов
+ * здания. На 100 этажах их только 198 (с первого этажа вниз и с последнего
+ * вверх не едут), поэтому здание - 200 этажей.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AssignmentBenchmark {
+
+    private static final int FLOORS = 200;
+
+    @Param({"50", "200"})
+    public int calls;
+
+    @Param({"64"})
+    public int fleetSize;
+
+    @Param({"GREEDY", "OPTIMAL"})
+    public String strategy;
+
+    private Dispatcher dispatcher;
+    private long[] states; // Снимки парка на начало пакета
+    private long[] work; // Копия снимков, которую меняет планирование
+    private List<ExternalRequest> batch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkOutput.silence();
+        Random random = new Random(42);
+        List<Elevator> elevators = new ArrayList<>(fleetSize);
+        for (int i = 0; i < fleetSize; i++) {
+            Elevator elevator = new Elevator(i, FLOORS);
+            // Часть лифтов занята, часть свободна
+            if (i % 2 == 0) {
+                elevator.addExternalRequest(1 + random.nextInt(FLOORS),
+                        random.nextBoolean() ? Direction.UP : Direction.DOWN);
+            }
+            elevators.add(elevator);
+        }
+        dispatcher = new Dispatcher(elevators, FLOORS);
+        dispatcher.setStrategy(DispatchStrategy.valueOf(strategy));
+
+        states = new long[fleetSize];
+        for (int i = 0; i < fleetSize; i++) {
+            states[i] = elevators.get(i).getSnapshot();
+        }
+        work = new long[fleetSize];
+
+        List<ExternalRequest> all = new ArrayList<>(2 * FLOORS - 2);
+        for (int floor = 1; floor <= FLOORS; floor++) {
+            if (floor < FLOORS) {
+                all.add(new ExternalRequest(floor, Direction.UP, 0));
+            }
+            if (floor > 1) {
+                all.add(new ExternalRequest(floor, Direction.DOWN, 0));
+            }
+        }
+        Collections.shuffle(all, random);
+        batch = new ArrayList<>(all.subList(0, calls));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkOutput.restore();
+    }
+
+    @Benchmark
+    public int[] planAssignment() {
+        System.arraycopy(states, 0, work, 0, states.length);
+        return dispatcher.planAssignment(work, batch);
+    }
+}
@@ -0,0 +1,23 @@
+package elevator;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+/**
+ * Подмена System.out на время бенчмарков: Logger печатает в консоль,
+ * а нам нужна стоимость форматирования и синхронизации, а не терминала.
+ */
+final class BenchmarkOutput {
+    private static final PrintStream ORIGINAL = System.out;
+
+    private BenchmarkOutput() {
+    }
+
+    static void silence() {
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    static void restore() {
+        System.setOut(ORIGINAL);
+    }
+}
@@ -0,0 +1,118 @@
+package elevator;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Назначение вызовов диспетчером в зависимости от размера парка лифтов и высоты здания.
+ * Лифты не запускаются в потоках, поэтому измеряется только выбор и назначение.
+ *
+ * Парк создается заново перед каждой итерацией, а назначенный вызов сразу снимается
+ * с получившего его лифта (cancelExternalRequest входит в замер): иначе через
+ * 2 * floors вызовов у всех лифтов были бы отмечены все этажи, и замер шел бы
+ * по полностью загруженному парку, где добавление вызова ничего не меняет.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DispatcherBenchmark {
+
+    private static final int BATCH_SIZE = 16; // Вызовов в одном пакете (пик утреннего подъема)
+
+    @Param({"4", "64", "1024", "4096"})
+    public int fleetSize;
+
+    @Param({"10", "100", "500"})
+    public int floors;
+
+    private List<Elevator> elevators;
+    private Dispatcher dispatcher;
+    private ExternalRequest[] calls; // Заранее созданные вызовы со всех этажей
+    private int next;
+    private final List<ExternalRequest> batch = new ArrayList<>(BATCH_SIZE);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkOutput.silence();
+        calls = new ExternalRequest[floors * 2];
+        for (int floor = 1; floor <= floors; floor++) {
+            calls[(floor - 1) * 2] = new ExternalRequest(floor, Direction.UP, 0);
+            calls[(floor - 1) * 2 + 1] = new ExternalRequest(floor, Direction.DOWN, 0);
+        }
+    }
+
+    /**
+     * Свежий парк: у каждого лифта одна поездка, чтобы стоимости отличались.
+     * Поездки заданы из кабины, поэтому снятие вызовов с этажей их не трогает.
+     */
+    @Setup(Level.Iteration)
+    public void newFleet() {
+        elevators = new ArrayList<>(fleetSize);
+        for (int i = 0; i < fleetSize; i++) {
+            Elevator elevator = new Elevator(i, floors);
+            elevator.addInternalRequest(1 + (i * 7) % floors);
+            elevators.add(elevator);
+        }
+        dispatcher = new Dispatcher(elevators, floors);
+        next = 0;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkOutput.restore();
+    }
+
+    private ExternalRequest nextCall() {
+        ExternalRequest call = calls[next];
+        next = next + 1 == calls.length ? 0 : next + 1;
+        return call;
+    }
+
+    /**
+     * Только поиск лучшего лифта (линейный проход по парку)
+     */
+    @Benchmark
+    public Elevator selectElevator() {
+        ExternalRequest call = nextCall();
+        return dispatcher.selectElevator(call.getFloor(), call.getDirection());
+    }
+
+    /**
+     * Поиск и назначение вызова выбранному лифту
+     */
+    @Benchmark
+    public Elevator assignRequest() {
+        ExternalRequest call = nextCall();
+        Elevator elevator = dispatcher.assignRequest(call);
+        if (elevator != null) {
+            elevator.cancelExternalRequest(call.getFloor(), call.getDirection());
+        }
+        return elevator;
+    }
+
+    /**
+     * Совместное назначение пакета вызовов по одному снимку парка
+     * (время на пакет из BATCH_SIZE вызовов)
+     */
+    @Benchmark
+    public int[] assignBatch() {
+        batch.clear();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(nextCall());
+        }
+        int[] plan = dispatcher.assignBatch(batch);
+        for (int i = 0; i < plan.length; i++) {
+            if (plan[i] >= 0) {
+                ExternalRequest call = batch.get(i);
+                elevators.get(plan[i]).cancelExternalRequest(call.getFloor(), call.getDirection());
+            }
+        }
+        return plan;
+    }
+}
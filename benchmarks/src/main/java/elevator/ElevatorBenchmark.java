@@ -0,0 +1,90 @@
+package elevator;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Горячие пути одного лифта: расчет стоимости и прием запросов.
+ *
+ * Прием запросов меряется на пустых лифтах: пул из POOL лифтов создается заново
+ * перед каждой итерацией, и одна итерация - пачка запросов в каждый лифт пула
+ * (однократный замер, результат - на один запрос). Создание лифтов в замер не входит.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ElevatorBenchmark {
+
+    // Пачка запросов на один свежий лифт (вместимость лифта - 10 пассажиров)
+    private static final int BATCH = 10;
+    private static final int POOL = 2048; // Свежих лифтов на итерацию
+
+    @Param({"10", "100", "500"})
+    public int floors;
+
+    private Elevator movingElevator; // Лифт с 10 пассажирами, едет вверх с 1 этажа
+    private Elevator[] freshElevators; // Пустые лифты для запросов, пересоздаются перед каждой итерацией
+    private int callFloor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkOutput.silence();
+        movingElevator = new Elevator(0, floors);
+        for (int i = 0; i < BATCH; i++) {
+            movingElevator.addInternalRequest(2 + i * (floors - 2) / BATCH);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void newElevators() {
+        freshElevators = new Elevator[POOL];
+        for (int i = 0; i < POOL; i++) {
+            freshElevators[i] = new Elevator(1, floors);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkOutput.restore();
+    }
+
+    @Benchmark
+    public int calculateCost() {
+        callFloor = callFloor == floors ? 1 : callFloor + 1;
+        return movingElevator.calculateCost(callFloor, (callFloor & 1) == 0 ? Direction.UP : Direction.DOWN);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 10)
+    @Measurement(iterations = 20)
+    @OperationsPerInvocation(POOL * BATCH)
+    public boolean addExternalRequest() {
+        boolean accepted = true;
+        for (Elevator elevator : freshElevators) {
+            for (int i = 0; i < BATCH; i++) {
+                accepted &= elevator.addExternalRequest(2 + i * (floors - 2) / BATCH, Direction.DOWN);
+            }
+        }
+        return accepted;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 10)
+    @Measurement(iterations = 20)
+    @OperationsPerInvocation(POOL * BATCH)
+    public boolean addInternalRequest() {
+        boolean accepted = true;
+        for (Elevator elevator : freshElevators) {
+            for (int i = 0; i < BATCH; i++) {
+                accepted &= elevator.addInternalRequest(2 + i * (floors - 2) / BATCH);
+            }
+        }
+        return accepted;
+    }
+}
@@ -0,0 +1,203 @@
+package elevator;
+
+import jdk.jfr.EventType;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сколько одновременно работающих лифтов выдерживает одна JVM:
+ * запуск парка, по одной поездке на каждый лифт и остановка.
+ * PLATFORM - потоки ОС, VIRTUAL - виртуальные потоки (на Java 17 откатывается
+ * на обычные, см. ThreadMode), SCHEDULED - общий планировщик шагов.
+ * Результаты VIRTUAL имеют смысл только на Java 21+: на Java 17 это тот же PLATFORM.
+ * Время ускорено в 5 раз, лог лифтов выключен.
+ * Замер однократный: каждый запуск создает и останавливает весь парк.
+ * В режиме поток-на-лифт простаивающий лифт просыпается каждые 100 мс времени
+ * симуляции, поэтому предел парка задают в первую очередь эти пробуждения;
+ * парк растет до 20000 лифтов, чтобы упереться в предел.
+ * Кроме времени выводятся пробуждения лифтов, процессорное время, среднее
+ * опоздание шага относительно срока, пик потоков JVM и занятая куча с
+ * работающим парком (на одну операцию).
+ * Парк, не освободившийся за DEADLINE_MS от начала запуска, останавливается и
+ * считается в timeouts: время такого замера - это время до отказа, а не до
+ * конца поездок. Сам запуск потоков (start()) срок не прерывает: при тысячах
+ * потоков ОС на малом числе ядер предел наступает уже в нем.
+ * pinnedEvents - события JFR jdk.VirtualThreadPinned (закрепление виртуального
+ * потока за носителем) за замер, с нулевым порогом. pinnedUnobserved - замеры,
+ * в которых такого события в JVM нет (Java 17): закрепление не наблюдаемо,
+ * и pinnedEvents = 0 ничего не доказывает.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = {"-Xss256k"})
+@State(Scope.Benchmark)
+public class FleetCapacityBenchmark {
+
+    private static final int FLOORS = 10;
+    private static final int TARGET_FLOOR = 4;
+    private static final double SPEEDUP = 5;
+    private static final long DEADLINE_MS = 60_000; // Поездка ~7 с времени симуляции
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    @Param({"500", "1000", "2000", "5000", "10000", "20000"})
+    public int fleetSize;
+
+    @Param({"PLATFORM", "VIRTUAL", "SCHEDULED"})
+    public String mode;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkOutput.silence();
+        Logger logger = Logger.getInstance();
+        logger.setLevel(LogCategory.SYSTEM, LogLevel.OFF);
+        logger.setLevel(LogCategory.DISPATCHER, LogLevel.OFF);
+        logger.setLevel(LogCategory.ELEVATOR, LogLevel.OFF);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Logger logger = Logger.getInstance();
+        logger.setLevel(LogCategory.SYSTEM, LogLevel.DEBUG);
+        logger.setLevel(LogCategory.DISPATCHER, LogLevel.DEBUG);
+        logger.setLevel(LogCategory.ELEVATOR, LogLevel.DEBUG);
+        BenchmarkOutput.restore();
+    }
+
+    /**
+     * Дополнительные результаты замера
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Counters {
+        public long wakeups;
+        public long idleWakeups;
+        public long cpuMillis;
+        public long latenessMicros;
+        public long peakThreads;
+        public long heapMegabytes;
+        public long timeouts;
+        public long pinnedEvents;
+        public long pinnedUnobserved;
+
+        private Recording recording;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            wakeups = 0;
+            idleWakeups = 0;
+            cpuMillis = 0;
+            latenessMicros = 0;
+            peakThreads = 0;
+            heapMegabytes = 0;
+            timeouts = 0;
+            pinnedEvents = 0;
+            pinnedUnobserved = 0;
+        }
+
+        @Setup(Level.Invocation)
+        public void startRecording() {
+            if (!pinnedEventSupported()) {
+                return;
+            }
+            recording = new Recording();
+            recording.enable(PINNED_EVENT).withThreshold(Duration.ZERO).withStackTrace();
+            recording.start();
+        }
+
+        @TearDown(Level.Invocation)
+        public void countPinned() throws IOException {
+            if (recording == null) {
+                pinnedUnobserved++;
+                return;
+            }
+            recording.stop();
+            Path file = Files.createTempFile("fleet-pinned", ".jfr");
+            try {
+                recording.dump(file);
+                for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+                    if (PINNED_EVENT.equals(event.getEventType().getName())) {
+                        pinnedEvents++;
+                    }
+                }
+            } finally {
+                recording.close();
+                recording = null;
+                Files.deleteIfExists(file);
+            }
+        }
+
+        private static boolean pinnedEventSupported() {
+            for (EventType type : FlightRecorder.getFlightRecorder().getEventTypes()) {
+                if (PINNED_EVENT.equals(type.getName())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    @Benchmark
+    public void startServeStop(Counters counters) throws InterruptedException {
+        ManagementFactory.getThreadMXBean().resetPeakThreadCount();
+        long cpuStart = processCpuNanos();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(DEADLINE_MS);
+        ElevatorSystemSimulation system = new ElevatorSystemSimulation(fleetSize, FLOORS,
+                new ScaledClock(SPEEDUP), ThreadMode.valueOf(mode));
+        system.start();
+        for (int i = 0; i < fleetSize; i++) {
+            system.selectFloor(i, TARGET_FLOOR);
+        }
+
+        // Ждем, пока каждый лифт доедет до цели и освободится
+        List<Elevator> elevators = system.getElevators();
+        int pending = fleetSize;
+        while (pending > 0) {
+            if (System.nanoTime() - deadline > 0) {
+                counters.timeouts++;
+                break;
+            }
+            Thread.sleep(10);
+            pending = 0;
+            for (Elevator elevator : elevators) {
+                long state = elevator.getSnapshot();
+                if (ElevatorSnapshot.floor(state) != TARGET_FLOOR
+                        || ElevatorSnapshot.status(state) != ElevatorStatus.IDLE) {
+                    pending++;
+                }
+            }
+        }
+
+        counters.peakThreads = Math.max(counters.peakThreads,
+                ManagementFactory.getThreadMXBean().getPeakThreadCount());
+        counters.heapMegabytes = Math.max(counters.heapMegabytes,
+                ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed() >> 20);
+        system.stop();
+
+        EngineStats stats = system.getEngineStats();
+        counters.wakeups += stats.getWakeups();
+        counters.idleWakeups += stats.getIdleWakeups();
+        counters.latenessMicros += stats.getAverageLatenessNanos() / 1000;
+        counters.cpuMillis += (processCpuNanos() - cpuStart) / 1_000_000;
+    }
+
+    private static long processCpuNanos() {
+        java.lang.management.OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (os instanceof com.sun.management.OperatingSystemMXBean) {
+            return ((com.sun.management.OperatingSystemMXBean) os).getProcessCpuTime();
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,105 @@
+package elevator;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Выбор лифта для вызова: полный проход по парку против обхода индекса
+ * по этажам от вызова наружу. Лифты заранее разъезжаются по зданию
+ * (шаги конечного автомата без потоков), часть из них везет пассажиров.
+ *
+ * selectElevator - одиночный вызов: чтение снимков и построение индекса
+ * входят в замер. planBatch - пакет из 64 вызовов по одним снимкам
+ * (рабочий путь диспетчера): индекс строится один раз на пакет.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FloorIndexBenchmark {
+
+    @Param({"16", "256", "4096"})
+    public int fleetSize;
+
+    @Param({"100"})
+    public int floors;
+
+    // LINEAR - полный проход, INDEXED - индекс по этажам
+    @Param({"LINEAR", "INDEXED"})
+    public String selection;
+
+    private Dispatcher dispatcher;
+    private int[] callFloors; // Заранее выбранные вызовы
+    private Direction[] callDirections;
+    private int next;
+    private long[] states; // Снимки парка для пакета
+    private long[] work; // Копия снимков, которую меняет планирование
+    private List<ExternalRequest> batch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkOutput.silence();
+        Logger.getInstance().setLevel(LogCategory.ELEVATOR, LogLevel.OFF);
+        Random random = new Random(42);
+        List<Elevator> elevators = new ArrayList<>(fleetSize);
+        for (int i = 0; i < fleetSize; i++) {
+            elevators.add(new Elevator(i, floors));
+        }
+        dispatcher = new Dispatcher(elevators, floors);
+        dispatcher.setIndexedSelection(selection.equals("INDEXED"));
+
+        // Разводим лифты по этажам: поездка к случайному этажу, прерванная на случайном шаге
+        for (Elevator elevator : elevators) {
+            elevator.addInternalRequest(1 + random.nextInt(floors));
+            int steps = random.nextInt(2 * floors);
+            for (int s = 0; s < steps; s++) {
+                elevator.step();
+            }
+            if (random.nextInt(4) == 0) {
+                elevator.addInternalRequest(1 + random.nextInt(floors));
+            }
+        }
+
+        states = new long[fleetSize];
+        for (int i = 0; i < fleetSize; i++) {
+            states[i] = elevators.get(i).getSnapshot();
+        }
+        work = new long[fleetSize];
+
+        callFloors = new int[1024];
+        callDirections = new Direction[1024];
+        for (int i = 0; i < callFloors.length; i++) {
+            callFloors[i] = 1 + random.nextInt(floors);
+            callDirections[i] = random.nextBoolean() ? Direction.UP : Direction.DOWN;
+        }
+        batch = new ArrayList<>(64);
+        for (int i = 0; i < 64; i++) {
+            batch.add(new ExternalRequest(callFloors[i], callDirections[i], 0));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Logger.getInstance().setLevel(LogCategory.ELEVATOR, LogLevel.DEBUG);
+        BenchmarkOutput.restore();
+    }
+
+    @Benchmark
+    public Elevator selectElevator() {
+        int i = next;
+        next = (next + 1) & (callFloors.length - 1);
+        return dispatcher.selectElevator(callFloors[i], callDirections[i]);
+    }
+
+    @Benchmark
+    public int[] planBatch() {
+        System.arraycopy(states, 0, work, 0, states.length);
+        return dispatcher.planAssignment(work, batch);
+    }
+}
@@ -0,0 +1,49 @@
+package elevator;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость записи в гистограмму времен обслуживания: одна общая гистограмма
+ * на несколько потоков (лифты здания), без замков и без создания объектов.
+ * С -prof gc видно, что запись не выделяет память.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HistogramBenchmark {
+
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    @State(Scope.Thread)
+    public static class Values {
+        long next = 1;
+
+        long next() {
+            // Ожидания от миллисекунд до минут
+            next = next * 6364136223846793005L + 1442695040888963407L;
+            return (next >>> 44) % 300_000;
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void record(Values values) {
+        histogram.record(values.next());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void recordContended(Values values) {
+        histogram.record(values.next());
+    }
+
+    @Benchmark
+    public long percentile() {
+        return histogram.getPercentile(0.99);
+    }
+}
@@ -0,0 +1,70 @@
+package elevator;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость одной записи в лог: время, форматирование и глобальный замок
+ * в синхронном режиме или постановка в кольцевой буфер в асинхронном.
+ * Вариант с 4 потоками показывает конкуренцию лифтов за вывод.
+ * Вариант с выключенным уровнем показывает цену вызова, который ничего не печатает
+ * (запускать с -prof gc: выделений памяти быть не должно).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoggerBenchmark {
+
+    // SYNC - печать в вызывающем потоке, остальные - политика заполнения асинхронного буфера
+    @Param({"SYNC", "BLOCK", "DROP"})
+    public String mode;
+
+    private Logger logger;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkOutput.silence();
+        logger = Logger.getInstance();
+        logger.setElevatorLevel(7, LogLevel.OFF);
+        if (!mode.equals("SYNC")) {
+            logger.startAsync(16 * 1024, AsyncLogWriter.OverflowPolicy.valueOf(mode));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        logger.stopAsync();
+        logger.setElevatorLevel(7, null);
+        BenchmarkOutput.restore();
+    }
+
+    @Benchmark
+    public void log() {
+        logger.log("BENCH", "Moved to floor 5 (UP)");
+    }
+
+    @Benchmark
+    public void logElevator() {
+        logger.logElevator(3, "Moved to floor " + 5 + " (" + Direction.UP + ")");
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void logElevatorContended() {
+        logger.logElevator(3, "Moved to floor " + 5 + " (" + Direction.UP + ")");
+    }
+
+    @Benchmark
+    public void logElevatorParameterized() {
+        logger.logElevator(3, LogLevel.DEBUG, "Moved to floor {} ({})", 5, Direction.UP);
+    }
+
+    @Benchmark
+    public void logElevatorDisabled() {
+        logger.logElevator(7, LogLevel.DEBUG, "Moved to floor {} ({})", 5, Direction.UP);
+    }
+}
@@ -0,0 +1,38 @@
+package elevator;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость одного прихода пассажира в генераторе потока: экспоненциальный
+ * интервал и выбор поездки двоичным поиском по матрице (память матрицы
+ * растет как квадрат числа этажей, время выбора - как логарифм).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TrafficBenchmark {
+
+    @Param({"10", "100", "500"})
+    public int floors;
+
+    private TrafficGenerator traffic;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Постоянный поток на год: генератор не заканчивается за время замера
+        TrafficProfile profile = TrafficProfile.constant("lunch", floors, 1_000_000, 365L * 24 * 60 * 60 * 1000);
+        traffic = new TrafficGenerator(profile, new SplittableRandom(1), new SplittableRandom(2));
+    }
+
+    @Benchmark
+    public int nextArrival() {
+        traffic.next();
+        return traffic.origin() + traffic.destination();
+    }
+}
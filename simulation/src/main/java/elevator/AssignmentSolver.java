@@ -0,0 +1,121 @@
+package elevator;
+
+import java.util.Arrays;
+
+/**
+ * Оптимальное назначение (задача о назначениях) венгерским алгоритмом
+ * с потенциалами, O(rows^2 * cols) при rows <= cols.
+ * Матрица стоимостей - примитивный int[][], который решатель хранит и
+ * переиспользует между вызовами, как и все рабочие массивы: при повторных
+ * решениях того же или меньшего размера память не выделяется.
+ * Класс не потокобезопасен: им пользуется только поток диспетчера.
+ */
+final class AssignmentSolver {
+    /**
+     * Стоимость недопустимой пары (например, лифт заполнен).
+     * Конечная, чтобы потенциалы не переполнялись
+     */
+    static final int INFEASIBLE = 1 << 20;
+
+    private int[][] cost = new int[0][0]; // Матрица стоимостей [строка][столбец]
+    private int[] rowPotential = new int[1]; // u, индексы с единицы
+    private int[] colPotential = new int[1]; // v
+    private int[] colMatch = new int[1]; // p: строка, назначенная столбцу (0 - нет)
+    private int[] way = new int[1]; // Предыдущий столбец на увеличивающем пути
+    private int[] minSlack = new int[1];
+    private boolean[] used = new boolean[1];
+    private int[] rowMatch = new int[0]; // Результат: столбец для каждой строки
+
+    /**
+     * Матрица не меньше rows x cols для заполнения стоимостями (индексы с нуля).
+     * Значения от прошлых решений не очищаются - заполнять нужно всю область rows x cols
+     */
+    int[][] matrix(int rows, int cols) {
+        if (cost.length < rows || (rows > 0 && cost[0].length < cols)) {
+            int capacityRows = Math.max(rows, cost.length);
+            int capacityCols = Math.max(cols, cost.length == 0 ? 0 : cost[0].length);
+            cost = new int[capacityRows][capacityCols];
+        }
+        return cost;
+    }
+
+    /**
+     * Решение для матрицы, заполненной через matrix(rows, cols)
+     *
+     * @return массив, где элемент i - столбец, назначенный строке i
+     *         (действителен до следующего вызова, длина может быть больше rows)
+     */
+    int[] solve(int rows, int cols) {
+        if (rows > cols) {
+            throw new IllegalArgumentException("Rows must not exceed columns: " + rows + " > " + cols);
+        }
+        ensureCapacity(rows, cols);
+        Arrays.fill(rowPotential, 0, rows + 1, 0);
+        Arrays.fill(colPotential, 0, cols + 1, 0);
+        Arrays.fill(colMatch, 0, cols + 1, 0);
+
+        for (int i = 1; i <= rows; i++) {
+            colMatch[0] = i;
+            int j0 = 0;
+            Arrays.fill(minSlack, 0, cols + 1, Integer.MAX_VALUE);
+            Arrays.fill(used, 0, cols + 1, false);
+            // Ищем увеличивающий путь от строки i, поднимая потенциалы
+            do {
+                used[j0] = true;
+                int i0 = colMatch[j0];
+                int[] costRow = cost[i0 - 1];
+                int delta = Integer.MAX_VALUE;
+                int j1 = 0;
+                for (int j = 1; j <= cols; j++) {
+                    if (!used[j]) {
+                        int current = costRow[j - 1] - rowPotential[i0] - colPotential[j];
+                        if (current < minSlack[j]) {
+                            minSlack[j] = current;
+                            way[j] = j0;
+                        }
+                        if (minSlack[j] < delta) {
+                            delta = minSlack[j];
+                            j1 = j;
+                        }
+                    }
+                }
+                for (int j = 0; j <= cols; j++) {
+                    if (used[j]) {
+                        rowPotential[colMatch[j]] += delta;
+                        colPotential[j] -= delta;
+                    } else {
+                        minSlack[j] -= delta;
+                    }
+                }
+                j0 = j1;
+            } while (colMatch[j0] != 0);
+            // Переназначаем строки вдоль найденного пути
+            do {
+                int j1 = way[j0];
+                colMatch[j0] = colMatch[j1];
+                j0 = j1;
+            } while (j0 != 0);
+        }
+
+        for (int j = 1; j <= cols; j++) {
+            if (colMatch[j] != 0) {
+                rowMatch[colMatch[j] - 1] = j - 1;
+            }
+        }
+        return rowMatch;
+    }
+
+    private void ensureCapacity(int rows, int cols) {
+        if (rowPotential.length < rows + 1) {
+            rowPotential = new int[rows + 1];
+            rowMatch = new int[rows];
+        }
+        if (colPotential.length < cols + 1) {
+            colPotential = new int[cols + 1];
+            colMatch = new int[cols + 1];
+            way = new int[cols + 1];
+            minSlack = new int[cols + 1];
+            used = new boolean[cols + 1];
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package elevator;
+
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Асинхронная запись лога через кольцевой буфер.
+ * Потоки лифтов и диспетчера только кладут событие в заранее выделенный слот
+ * (без замков, захват слота через CAS), а один фоновый поток форматирует
+ * события и печатает их пачками.
+ */
+final class AsyncLogWriter implements Runnable {
+
+    /**
+     * Что делать, если буфер заполнен
+     */
+    enum OverflowPolicy {
+        BLOCK, // ждать, пока писатель освободит место (ничего не теряется)
+        DROP, // молча отбрасывать событие
+        DROP_AND_REPORT // отбрасывать и периодически писать в лог число потерянных событий
+    }
+
+    private static final int MAX_BATCH = 256; // Максимум событий в одной пачке вывода
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final int capacity; // Размер буфера (степень двойки)
+    private final int mask;
+    private final OverflowPolicy policy;
+
+    // Слоты буфера: время, тип и текст события
+    private final long[] times;
+    private final String[] types;
+    private final String[] messages;
+    // Номер события, записанного в слот; -1 - слот еще не заполнялся
+    private final AtomicLongArray published;
+
+    private final AtomicLong tail = new AtomicLong(); // Следующий свободный номер для производителей
+    private volatile long head = 0; // Первый номер, еще не обработанный писателем
+    private final LongAdder dropped = new LongAdder(); // Отброшенные события
+    private long reportedDrops = 0; // Сколько потерь уже сообщено (только поток писателя)
+
+    private final DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm:ss");
+    private long cachedSecond = Long.MIN_VALUE; // Кэш форматирования времени по секундам
+    private String cachedTime = "";
+    private long lastTimeMillis = 0; // Время последнего напечатанного события
+
+    private volatile boolean running = true;
+    private final Thread thread;
+
+    /**
+     * @param capacity - размер буфера, округляется вверх до степени двойки
+     * @param policy   - поведение при заполнении буфера
+     */
+    AsyncLogWriter(int capacity, OverflowPolicy policy) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("Log buffer capacity must be at least 2: " + capacity);
+        }
+        this.capacity = Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = this.capacity - 1;
+        this.policy = policy;
+        this.times = new long[this.capacity];
+        this.types = new String[this.capacity];
+        this.messages = new String[this.capacity];
+        this.published = new AtomicLongArray(this.capacity);
+        for (int i = 0; i < this.capacity; i++) {
+            published.set(i, -1);
+        }
+        this.thread = new Thread(this, "Log-Writer");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public OverflowPolicy getPolicy() {
+        return policy;
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Постановка события в буфер (вызывается из любых потоков)
+     *
+     * @return false если событие отброшено
+     */
+    boolean publish(long timeMillis, String type, String message) {
+        long sequence;
+        while (true) {
+            sequence = tail.get();
+            if (sequence - head >= capacity) {
+                // Буфер заполнен
+                if (policy != OverflowPolicy.BLOCK || !running) {
+                    dropped.increment();
+                    return false;
+                }
+                LockSupport.parkNanos(FULL_PARK_NANOS);
+                continue;
+            }
+            if (tail.compareAndSet(sequence, sequence + 1)) {
+                break;
+            }
+        }
+
+        int index = (int) (sequence & mask);
+        times[index] = timeMillis;
+        types[index] = type;
+        messages[index] = message;
+        published.set(index, sequence); // volatile-запись делает поля слота видимыми писателю
+        return true;
+    }
+
+    /**
+     * Остановка писателя с выводом всех уже принятых событий
+     */
+    void shutdown() {
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Поток писателя: забирает готовые слоты по порядку и печатает их пачкой
+     */
+    @Override
+    public void run() {
+        StringBuilder batch = new StringBuilder(MAX_BATCH * 64);
+        long next = head;
+
+        while (running || next < tail.get()) {
+            int count = 0;
+            while (count < MAX_BATCH) {
+                int index = (int) (next & mask);
+                if (published.get(index) != next) {
+                    break;
+                }
+                append(batch, times[index], types[index], messages[index]);
+                types[index] = null;
+                messages[index] = null;
+                next++;
+                count++;
+            }
+
+            if (count > 0) {
+                head = next; // Освобождаем слоты для производителей
+            }
+            appendDropReport(batch);
+
+            if (batch.length() > 0) {
+                System.out.print(batch);
+                System.out.flush();
+                batch.setLength(0);
+            } else if (count == 0) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+        appendDropReport(batch);
+        if (batch.length() > 0) {
+            System.out.print(batch);
+            System.out.flush();
+        }
+    }
+
+    private void appendDropReport(StringBuilder batch) {
+        if (policy != OverflowPolicy.DROP_AND_REPORT) {
+            return;
+        }
+        long total = dropped.sum();
+        if (total > reportedDrops) {
+            append(batch, lastTimeMillis, "LOGGER",
+                    (total - reportedDrops) + " log events dropped (buffer full, total " + total + ")");
+            reportedDrops = total;
+        }
+    }
+
+    /**
+     * Тот же формат, что и у синхронного Logger: "HH:mm:ss [TYPE      ] message"
+     */
+    private void append(StringBuilder out, long timeMillis, String type, String message) {
+        lastTimeMillis = timeMillis;
+        long second = Math.floorDiv(timeMillis, 1000);
+        if (second != cachedSecond) {
+            cachedSecond = second;
+            cachedTime = LocalTime.ofInstant(Instant.ofEpochMilli(timeMillis), ZoneId.systemDefault())
+                    .format(timeFormatter);
+        }
+        out.append(cachedTime).append(" [").append(type);
+        for (int i = type.length(); i < 10; i++) {
+            out.append(' ');
+        }
+        out.append("] ").append(message).append(System.lineSeparator());
+    }
+}
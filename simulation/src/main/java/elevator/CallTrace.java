@@ -0,0 +1,334 @@
+package elevator;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Двоичный формат записанных вызовов и его чтение/запись.
+ *
+ * Файл: заголовок 16 байт (сигнатура, версия, число этажей, число лифтов),
+ * затем записи фиксированной длины 16 байт по неубыванию времени:
+ * время от начала записи в мс (long), этаж (int), тип (byte: 0 - вызов
+ * с этажа, 1 - выбор этажа в кабине), направление (byte: 0 - вверх, 1 - вниз),
+ * номер лифта с нуля (short, только для выбора в кабине). Порядок байт - little-endian.
+ *
+ * Reader читает файл окнами через отображение в память (FileChannel.map)
+ * и идет по записям последовательно: куча не зависит от размера файла,
+ * а окна не превышают предела MappedByteBuffer в 2 ГБ.
+ *
+ * Журналы зданий переводятся в этот формат из CSV (convertCsv).
+ */
+final class CallTrace {
+    static final int MAGIC = 0x454C5452; // "ELTR"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    static final int RECORD_BYTES = 16;
+
+    static final byte HALL_CALL = 0;
+    static final byte CAR_CALL = 1;
+
+    private static final long WINDOW_BYTES = 64L * 1024 * 1024; // Размер окна отображения (кратен записи)
+
+    private CallTrace() {
+    }
+
+    /**
+     * Перевод журнала вызовов из CSV. Строки (пустые и начинающиеся с # пропускаются,
+     * как и строка заголовка):
+     * <pre>
+     * время_мс,HALL,этаж,UP|DOWN
+     * время_мс,CAR,этаж,номер_лифта (с единицы, как в логе)
+     * </pre>
+     * Время - любые миллисекунды по неубыванию (например, epoch), в записи
+     * отсчитывается от первой строки. Файл читается построчно, память постоянна.
+     * Запись идет во временный файл рядом с trace и переносится на место только
+     * после успешного перевода: при ошибке в CSV недописанная запись
+     * с корректным заголовком не остается.
+     *
+     * @return число записанных вызовов
+     */
+    static long convertCsv(Path csv, Path trace) throws IOException {
+        Path target = trace.toAbsolutePath();
+        Path temporary = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            long count = convertCsvTo(csv, temporary);
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return count;
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private static long convertCsvTo(Path csv, Path trace) throws IOException {
+        try (BufferedReader in = Files.newBufferedReader(csv, StandardCharsets.UTF_8);
+             Writer out = new Writer(trace)) {
+            long origin = -1;
+            int lineNumber = 0;
+            String line;
+            while ((line = in.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")
+                        || (lineNumber == 1 && !Character.isDigit(line.charAt(0)))) {
+                    continue;
+                }
+                String[] fields = line.split(",");
+                try {
+                    if (fields.length != 4) {
+                        throw new IllegalArgumentException("expected 4 fields");
+                    }
+                    long time = Long.parseLong(fields[0].trim());
+                    if (origin < 0) {
+                        origin = time;
+                    }
+                    int floor = Integer.parseInt(fields[2].trim());
+                    String type = fields[1].trim().toUpperCase();
+                    if (type.equals("HALL")) {
+                        out.writeHallCall(time - origin, floor, Direction.valueOf(fields[3].trim().toUpperCase()));
+                    } else if (type.equals("CAR")) {
+                        out.writeCarCall(time - origin, Integer.parseInt(fields[3].trim()) - 1, floor);
+                    } else {
+                        throw new IllegalArgumentException("unknown call type " + type);
+                    }
+                } catch (IllegalArgumentException e) {
+                    throw new IOException(csv + ":" + lineNumber + ": " + e.getMessage(), e);
+                }
+            }
+            return out.getCount();
+        }
+    }
+
+    /**
+     * Последовательное чтение записи через окна отображения в память.
+     * Поля текущей записи доступны после next(); не потокобезопасен.
+     */
+    static final class Reader implements Closeable {
+        private final FileChannel channel;
+        private final long windowBytes;
+        private final long fileSize;
+        private final int maxFloor;
+        private final int elevatorCount;
+        private MappedByteBuffer window;
+        private long windowStart; // Смещение окна в файле
+        private long position; // Смещение следующей записи в файле
+
+        private long time;
+        private byte type;
+        private int floor;
+        private Direction direction;
+        private int elevator;
+
+        Reader(Path path) throws IOException {
+            this(path, WINDOW_BYTES);
+        }
+
+        /**
+         * @param windowBytes - размер окна отображения, кратный длине записи
+         */
+        Reader(Path path, long windowBytes) throws IOException {
+            if (windowBytes < RECORD_BYTES || windowBytes % RECORD_BYTES != 0) {
+                throw new IllegalArgumentException("Window must be a multiple of " + RECORD_BYTES + ": "
+                        + windowBytes);
+            }
+            this.windowBytes = windowBytes;
+            this.channel = FileChannel.open(path, StandardOpenOption.READ);
+            try {
+                this.fileSize = channel.size();
+                if (fileSize < HEADER_BYTES || (fileSize - HEADER_BYTES) % RECORD_BYTES != 0) {
+                    throw new IOException("Not a call trace (bad size " + fileSize + "): " + path);
+                }
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+                    // Читаем заголовок целиком
+                }
+                header.flip();
+                if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                    throw new IOException("Not a call trace (bad header): " + path);
+                }
+                this.maxFloor = header.getInt();
+                this.elevatorCount = header.getInt();
+                this.position = HEADER_BYTES;
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        int getMaxFloor() {
+            return maxFloor;
+        }
+
+        int getElevatorCount() {
+            return elevatorCount;
+        }
+
+        long getRecordCount() {
+            return (fileSize - HEADER_BYTES) / RECORD_BYTES;
+        }
+
+        /**
+         * Время последней записи (читается отдельно, без отображения)
+         */
+        long getDurationMillis() throws IOException {
+            if (fileSize == HEADER_BYTES) {
+                return 0;
+            }
+            ByteBuffer last = ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (last.hasRemaining() && channel.read(last, fileSize - RECORD_BYTES + last.position()) > 0) {
+                // Читаем время целиком
+            }
+            return last.flip().getLong();
+        }
+
+        /**
+         * Переход к следующей записи
+         *
+         * @return false, если записи кончились
+         */
+        boolean next() {
+            if (position >= fileSize) {
+                return false;
+            }
+            if (window == null || position >= windowStart + window.capacity()) {
+                remap();
+            }
+            int offset = (int) (position - windowStart);
+            long recordTime = window.getLong(offset);
+            if (recordTime < time) {
+                throw new IllegalStateException("Trace is not sorted by time at record "
+                        + (position - HEADER_BYTES) / RECORD_BYTES);
+            }
+            time = recordTime;
+            floor = window.getInt(offset + 8);
+            type = window.get(offset + 12);
+            direction = window.get(offset + 13) == 0 ? Direction.UP : Direction.DOWN;
+            elevator = window.getShort(offset + 14);
+            position += RECORD_BYTES;
+            return true;
+        }
+
+        private void remap() {
+            windowStart = position;
+            long size = Math.min(windowBytes, fileSize - position);
+            try {
+                window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, size);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            window.order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        long time() {
+            return time;
+        }
+
+        boolean isHallCall() {
+            return type == HALL_CALL;
+        }
+
+        int floor() {
+            return floor;
+        }
+
+        Direction direction() {
+            return direction;
+        }
+
+        int elevator() {
+            return elevator;
+        }
+
+        @Override
+        public void close() throws IOException {
+            window = null; // Отображение освободит сборщик мусора
+            channel.close();
+        }
+    }
+
+    /**
+     * Последовательная запись через небольшой буфер; заголовок пишется при закрытии,
+     * когда известны число этажей и лифтов
+     */
+    static final class Writer implements Closeable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024).order(ByteOrder.LITTLE_ENDIAN);
+        private long lastTime = 0;
+        private long count = 0;
+        private int maxFloor = 0;
+        private int elevatorCount = 0;
+
+        Writer(Path path) throws IOException {
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            channel.position(HEADER_BYTES);
+        }
+
+        void writeHallCall(long time, int floor, Direction direction) throws IOException {
+            if (direction == Direction.NONE) {
+                throw new IllegalArgumentException("Hall call needs a direction");
+            }
+            write(time, floor, HALL_CALL, direction == Direction.DOWN ? 1 : 0, 0);
+        }
+
+        void writeCarCall(long time, int elevator, int floor) throws IOException {
+            if (elevator < 0 || elevator > Short.MAX_VALUE) {
+                throw new IllegalArgumentException("Elevator number out of range: " + elevator);
+            }
+            write(time, floor, CAR_CALL, 0, elevator);
+            elevatorCount = Math.max(elevatorCount, elevator + 1);
+        }
+
+        long getCount() {
+            return count;
+        }
+
+        private void write(long time, int floor, byte type, int direction, int elevator) throws IOException {
+            if (time < lastTime) {
+                throw new IllegalArgumentException("Calls must be in time order: " + time + " < " + lastTime);
+            }
+            if (floor < 1) {
+                throw new IllegalArgumentException("Invalid floor: " + floor);
+            }
+            if (buffer.remaining() < RECORD_BYTES) {
+                flush();
+            }
+            buffer.putLong(time).putInt(floor).put(type).put((byte) direction).putShort((short) elevator);
+            lastTime = time;
+            maxFloor = Math.max(maxFloor, floor);
+            count++;
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                header.putInt(MAGIC).putInt(VERSION).putInt(maxFloor).putInt(elevatorCount).flip();
+                while (header.hasRemaining()) {
+                    channel.write(header, header.position());
+                }
+            } finally {
+                channel.close();
+            }
+        }
+    }
+}
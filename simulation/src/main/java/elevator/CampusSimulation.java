@@ -0,0 +1,186 @@
+package elevator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Кампус из нескольких независимых зданий на одном ограниченном пуле потоков.
+ * У каждого здания свои лифты, диспетчеры, логгер и статистика; потоков
+ * у зданий нет - шаги лифтов и генераторы запросов планируются в общем пуле
+ * (размер по умолчанию - число ядер), поэтому число потоков не зависит
+ * от числа зданий, а здания не делят между собой никаких замков.
+ */
+final class CampusSimulation {
+    private final List<ElevatorSystemSimulation> buildings;
+    private final ScheduledThreadPoolExecutor pool; // Общий пул всех зданий
+    private final Logger logger; // Лог кампуса (сводка)
+    private volatile boolean running = false;
+
+    CampusSimulation(int numBuildings, int elevatorsPerBuilding, int maxFloor, SimulationClock clock) {
+        this(numBuildings, elevatorsPerBuilding, maxFloor, 1, clock, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param zones   - число зон диспетчеризации в каждом здании
+     * @param workers - размер общего пула
+     */
+    CampusSimulation(int numBuildings, int elevatorsPerBuilding, int maxFloor, int zones, SimulationClock clock,
+            int workers) {
+        this(numBuildings, elevatorsPerBuilding, maxFloor, zones, clock, workers, RandomStreams.randomSeed());
+    }
+
+    /**
+     * @param seed - главное зерно кампуса, из него выводятся зерна зданий
+     */
+    CampusSimulation(int numBuildings, int elevatorsPerBuilding, int maxFloor, int zones, SimulationClock clock,
+            int workers, long seed) {
+        if (numBuildings < 1) {
+            throw new IllegalArgumentException("Campus needs at least one building: " + numBuildings);
+        }
+        this.logger = Logger.getInstance();
+        this.pool = new ScheduledThreadPoolExecutor(Math.max(1, workers),
+                ThreadMode.PLATFORM.newThreadFactory("Campus-Worker"));
+        this.pool.setRemoveOnCancelPolicy(true);
+        this.buildings = new ArrayList<>(numBuildings);
+        SplittableRandom seeds = new SplittableRandom(seed);
+        for (int i = 0; i < numBuildings; i++) {
+            Logger buildingLogger = new Logger("B" + (i + 1));
+            buildingLogger.setClock(clock);
+            buildings.add(new ElevatorSystemSimulation(elevatorsPerBuilding, maxFloor, clock, zones, pool,
+                    buildingLogger, seeds.nextLong()));
+        }
+    }
+
+    public List<ElevatorSystemSimulation> getBuildings() {
+        return Collections.unmodifiableList(buildings);
+    }
+
+    public int getWorkerCount() {
+        return pool.getCorePoolSize();
+    }
+
+    public void start() {
+        if (running)
+            return;
+
+        running = true;
+        logger.logSystem("Campus STARTING: " + buildings.size() + " buildings, "
+                + getWorkerCount() + " worker threads");
+        for (ElevatorSystemSimulation building : buildings) {
+            building.start();
+        }
+    }
+
+    /**
+     * Остановка всех зданий, затем общего пула
+     */
+    public void stop() {
+        if (!running)
+            return;
+
+        running = false;
+        for (ElevatorSystemSimulation building : buildings) {
+            building.stop();
+        }
+        pool.shutdownNow();
+        try {
+            if (!pool.awaitTermination(5, TimeUnit.SECONDS)) {
+                logger.logError("Campus workers did not stop in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        logger.logSystem("Campus STOPPED");
+    }
+
+    /**
+     * Случайные запросы в каждом здании (свой поток запросов на здание)
+     */
+    public void generateRandomRequests(int perBuilding) {
+        for (ElevatorSystemSimulation building : buildings) {
+            building.generateRandomRequests(perBuilding);
+        }
+    }
+
+    /**
+     * Назначенные вызовы по всему кампусу
+     */
+    public long getAssignedCount() {
+        long total = 0;
+        for (ElevatorSystemSimulation building : buildings) {
+            total += building.getDispatcher().getAssignedCount();
+        }
+        return total;
+    }
+
+    /**
+     * Среднее ожидание вызова в очереди по кампусу (взвешено числом вызовов зданий)
+     */
+    public long getAverageLatencyMillis() {
+        long calls = 0;
+        long latency = 0;
+        for (ElevatorSystemSimulation building : buildings) {
+            calls += building.getDispatcher().getAssignedCount();
+            latency += building.getDispatcher().getTotalLatencyMillis();
+        }
+        return calls == 0 ? 0 : latency / calls;
+    }
+
+    public long getMaxLatencyMillis() {
+        long max = 0;
+        for (ElevatorSystemSimulation building : buildings) {
+            max = Math.max(max, building.getDispatcher().getMaxLatencyMillis());
+        }
+        return max;
+    }
+
+    public long getWakeups() {
+        long total = 0;
+        for (ElevatorSystemSimulation building : buildings) {
+            total += building.getEngineStats().getWakeups();
+        }
+        return total;
+    }
+
+    public long getMaxLatenessMicros() {
+        long max = 0;
+        for (ElevatorSystemSimulation building : buildings) {
+            max = Math.max(max, building.getEngineStats().getMaxLatenessNanos() / 1000);
+        }
+        return max;
+    }
+
+    /**
+     * Ожидание на этажах по всему кампусу
+     */
+    public LatencyHistogram getWaitTimes() {
+        LatencyHistogram total = new LatencyHistogram();
+        for (ElevatorSystemSimulation building : buildings) {
+            total.add(building.getWaitTimes());
+        }
+        return total;
+    }
+
+    /**
+     * Сводка кампуса и по зданиям в лог
+     */
+    public void logSummary() {
+        logger.logSystem("==========================================");
+        logger.logSystem("CAMPUS SUMMARY");
+        logger.logSystem("==========================================");
+        for (int i = 0; i < buildings.size(); i++) {
+            ElevatorSystemSimulation building = buildings.get(i);
+            logger.logInfo("Building " + (i + 1) + ": " + building.getDispatcher().statsSummary()
+                    + "; engine " + building.getEngineStats() + "; hall wait " + building.getWaitTimes());
+        }
+        logger.logInfo(String.format("Campus: %d buildings, calls: %d, queue latency avg/max: %d/%d ms, "
+                + "wakeups: %d, max lateness: %d us",
+                buildings.size(), getAssignedCount(), getAverageLatencyMillis(), getMaxLatencyMillis(),
+                getWakeups(), getMaxLatenessMicros()));
+        logger.logInfo("Campus hall wait " + getWaitTimes());
+    }
+}
@@ -0,0 +1,343 @@
+package elevator;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.*;
+
+/**
+ * Событийная (discrete-event) симуляция системы лифтов.
+ * Вместо Thread.sleep движения, циклы дверей и появление запросов планируются
+ * в очереди с приоритетом по виртуальному времени, поэтому сутки работы здания
+ * моделируются за секунды реального времени.
+ * Используются те же классы Elevator и Dispatcher, что и в многопоточном режиме,
+ * и те же длительности фаз, поэтому решения лифтов и диспетчера совпадают.
+ */
+class DiscreteEventSimulation {
+    private final List<Elevator> elevators; // Все лифты в системе
+    private final Dispatcher dispatcher; // Диспетчер
+    private final int maxFloor; // Максимальный этаж
+    private final Logger logger; // Логгер
+    private final VirtualClock clock; // Виртуальные часы симуляции
+    private final RandomStreams random; // Потоки случайных чисел от одного зерна
+    private final MetricsRegistry metrics = new MetricsRegistry(); // Счетчики прогона
+
+    private final PriorityQueue<SimulationEvent> events; // Очередь будущих событий
+    private final boolean[] elevatorScheduled; // Запланирован ли следующий шаг лифта
+    private long sequence = 0; // Порядковый номер для одновременных событий
+    private long processedEvents = 0; // Количество обработанных событий
+
+    /**
+     * Конструктор событийной симуляции
+     *
+     * @param numElevators - количество лифтов
+     * @param maxFloor     - количество этажей
+     */
+    public DiscreteEventSimulation(int numElevators, int maxFloor) {
+        this(numElevators, maxFloor, new VirtualClock(
+                LocalDate.now().atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli()));
+    }
+
+    /**
+     * Конструктор событийной симуляции с заданными виртуальными часами
+     *
+     * @param numElevators - количество лифтов
+     * @param maxFloor     - количество этажей
+     * @param clock        - виртуальные часы (ноль симуляции задает время начала)
+     */
+    public DiscreteEventSimulation(int numElevators, int maxFloor, VirtualClock clock) {
+        this(numElevators, maxFloor, clock, Logger.getInstance());
+    }
+
+    /**
+     * Конструктор событийной симуляции со своим логгером
+     * (независимые прогоны не пишут в общий логгер)
+     *
+     * @param numElevators - количество лифтов
+     * @param maxFloor     - количество этажей
+     * @param clock        - виртуальные часы (ноль симуляции задает время начала)
+     * @param logger       - логгер прогона
+     */
+    DiscreteEventSimulation(int numElevators, int maxFloor, VirtualClock clock, Logger logger) {
+        this(numElevators, maxFloor, clock, logger, RandomStreams.randomSeed());
+    }
+
+    /**
+     * Конструктор воспроизводимой событийной симуляции: одно зерно и те же
+     * запланированные события дают ту же последовательность событий
+     *
+     * @param numElevators - количество лифтов
+     * @param maxFloor     - количество этажей
+     * @param clock        - виртуальные часы (ноль симуляции задает время начала)
+     * @param logger       - логгер прогона
+     * @param seed         - главное зерно запросов и выхода пассажиров
+     */
+    DiscreteEventSimulation(int numElevators, int maxFloor, VirtualClock clock, Logger logger, long seed) {
+        this.maxFloor = maxFloor;
+        this.random = new RandomStreams(seed);
+        this.clock = clock;
+        this.elevators = new ArrayList<>();
+        this.events = new PriorityQueue<>();
+        this.elevatorScheduled = new boolean[numElevators];
+        this.logger = logger;
+
+        for (int i = 0; i < numElevators; i++) {
+            Elevator elevator = new Elevator(i, maxFloor, clock, logger, random.nextExitStream());
+            final int index = i;
+            // Вместо пробуждения потока планируем шаг лифта в текущий момент
+            elevator.setWorkListener(() -> wakeElevator(index));
+            elevators.add(elevator);
+        }
+
+        dispatcher = new Dispatcher(elevators, maxFloor, clock, logger);
+        // Оставшиеся после посадки пассажиры вызывают лифт отдельным событием, не внутри шага лифта
+        dispatcher.getHallCalls().getPassengers().setReissueHandler(
+                (floor, direction) -> schedule(clock.getElapsedMillis(), () -> callElevator(floor, direction)));
+
+        for (Elevator elevator : elevators) {
+            elevator.setMetrics(metrics);
+        }
+        dispatcher.setMetrics(metrics);
+        ElevatorSystemSimulation.registerGauges(metrics, dispatcher.getHallCalls(), elevators);
+    }
+
+    public long getCurrentTime() {
+        return clock.getElapsedMillis();
+    }
+
+    public VirtualClock getClock() {
+        return clock;
+    }
+
+    public long getSeed() {
+        return random.getSeed();
+    }
+
+    public long getProcessedEvents() {
+        return processedEvents;
+    }
+
+    public List<Elevator> getElevators() {
+        return elevators;
+    }
+
+    public Dispatcher getDispatcher() {
+        return dispatcher;
+    }
+
+    public MetricsRegistry getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Ожидание на этажах по зданию: сводка гистограмм лифтов
+     */
+    public LatencyHistogram getWaitTimes() {
+        LatencyHistogram total = new LatencyHistogram();
+        for (Elevator elevator : elevators) {
+            total.add(elevator.getWaitTimes());
+        }
+        return total;
+    }
+
+    /**
+     * Поездки по зданию: сводка гистограмм лифтов
+     */
+    public LatencyHistogram getJourneyTimes() {
+        LatencyHistogram total = new LatencyHistogram();
+        for (Elevator elevator : elevators) {
+            total.add(elevator.getJourneyTimes());
+        }
+        return total;
+    }
+
+    /**
+     * Планирование действия на заданный момент виртуального времени
+     */
+    public void schedule(long time, Runnable action) {
+        long now = clock.getElapsedMillis();
+        if (time < now) {
+            throw new IllegalArgumentException("Cannot schedule event in the past: " + time + " < " + now);
+        }
+        events.add(new SimulationEvent(time, sequence++, action));
+    }
+
+    /**
+     * Вызов лифта с этажа в момент time
+     */
+    public void scheduleCall(long time, int floor, Direction direction) {
+        schedule(time, () -> callElevator(floor, direction));
+    }
+
+    /**
+     * Выбор этажа в лифте в момент time
+     */
+    public void scheduleFloorSelection(long time, int elevatorId, int targetFloor) {
+        schedule(time, () -> selectFloor(elevatorId, targetFloor));
+    }
+
+    /**
+     * Случайные запросы с тем же распределением, что и
+     * ElevatorSystemSimulation.generateRandomRequests: пауза 500-3500 мс,
+     * 70% внешних запросов, 30% внутренних.
+     * Случайные числа берутся из тех же потоков и в том же порядке, что и
+     * в генераторе запросов, поэтому при одном зерне запросы совпадают.
+     */
+    public void scheduleRandomRequests(long startTime, int numRequests) {
+        logger.logInfo("Generating " + numRequests + " random requests...");
+        scheduleNextRandomRequest(startTime, numRequests);
+    }
+
+    private void scheduleNextRandomRequest(long after, int remaining) {
+        if (remaining <= 0) {
+            return;
+        }
+        int delay = random.arrivals().nextInt(3000) + 500;
+        schedule(after + delay, () -> {
+            SplittableRandom destinations = random.destinations();
+            if (destinations.nextDouble() < 0.7) {
+                int floor = destinations.nextInt(maxFloor) + 1;
+                Direction direction = destinations.nextBoolean() ? Direction.UP : Direction.DOWN;
+                callElevator(floor, direction);
+            } else {
+                int elevatorId = destinations.nextInt(elevators.size());
+                int targetFloor = destinations.nextInt(maxFloor) + 1;
+                selectFloor(elevatorId, targetFloor);
+            }
+            scheduleNextRandomRequest(clock.getElapsedMillis(), remaining - 1);
+        });
+    }
+
+    /**
+     * Поток пассажиров по профилю (время профиля отсчитывается от нуля симуляции).
+     * В очереди событий всегда только один следующий приход, поэтому память
+     * не зависит от числа пассажиров за сутки.
+     */
+    public void scheduleTraffic(TrafficProfile profile) {
+        logger.logInfo("Traffic profile " + profile.getName() + ": ~" + Math.round(profile.expectedPassengers())
+                + " passengers");
+        scheduleNextArrival(new TrafficGenerator(profile, random.arrivals(), random.destinations()));
+    }
+
+    private void scheduleNextArrival(TrafficGenerator traffic) {
+        if (!traffic.next()) {
+            return;
+        }
+        schedule(traffic.time(), () -> {
+            passengerArrives(traffic.origin(), traffic.destination());
+            scheduleNextArrival(traffic);
+        });
+    }
+
+    /**
+     * Воспроизведение записанных вызовов (время записи отсчитывается от нуля симуляции).
+     * Как и для профиля, в очереди событий только один следующий вызов;
+     * закрывает запись вызывающий после runUntil.
+     */
+    public void scheduleTrace(CallTrace.Reader trace) {
+        logger.logInfo("Call trace: " + trace.getRecordCount() + " calls, " + trace.getMaxFloor() + " floors, "
+                + trace.getElevatorCount() + " elevators");
+        scheduleNextTraceCall(trace);
+    }
+
+    private void scheduleNextTraceCall(CallTrace.Reader trace) {
+        if (!trace.next()) {
+            return;
+        }
+        schedule(trace.time(), () -> {
+            if (trace.isHallCall()) {
+                callElevator(trace.floor(), trace.direction());
+            } else {
+                selectFloor(trace.elevator(), trace.floor());
+            }
+            scheduleNextTraceCall(trace);
+        });
+    }
+
+    /**
+     * Пассажир пришел на этаж и вызывает лифт в сторону этажа назначения
+     */
+    private void passengerArrives(int origin, int destination) {
+        dispatcher.getHallCalls().getPassengers().arrive(origin, destination, clock.currentTimeMillis());
+        callElevator(origin, WaitingPassengers.directionOf(origin, destination));
+    }
+
+    /**
+     * Обработка событий до момента endTime включительно
+     */
+    public void runUntil(long endTime) {
+        while (!events.isEmpty() && events.peek().time <= endTime) {
+            SimulationEvent event = events.poll();
+            clock.advanceTo(event.time);
+            event.action.run();
+            processedEvents++;
+        }
+        clock.advanceTo(Math.max(clock.getElapsedMillis(), endTime));
+    }
+
+    private void callElevator(int floor, Direction direction) {
+        if (floor < 1 || floor > maxFloor) {
+            logger.logError("Invalid floor: " + floor + " (must be 1-" + maxFloor + ")");
+            return;
+        }
+        dispatcher.addExternalRequest(floor, direction);
+        // Поток диспетчера забрал бы запрос сразу, делаем это синхронно
+        dispatcher.dispatchPending();
+    }
+
+    private void selectFloor(int elevatorId, int targetFloor) {
+        if (elevatorId < 0 || elevatorId >= elevators.size()) {
+            logger.logError("Invalid elevator ID: " + elevatorId +
+                    " (must be 0-" + (elevators.size() - 1) + ")");
+            return;
+        }
+        dispatcher.callElevator(elevatorId, targetFloor);
+    }
+
+    /**
+     * Появилась работа у лифта: если он простаивал, его шаг выполняется немедленно
+     * (так же, как поток лифта просыпается по сигналу условия)
+     */
+    private void wakeElevator(int index) {
+        if (!elevatorScheduled[index]) {
+            elevatorScheduled[index] = true;
+            schedule(clock.getElapsedMillis(), () -> elevatorStep(index));
+        }
+    }
+
+    /**
+     * Один переход конечного автомата лифта; следующий переход планируется
+     * через возвращенную задержку (так же, как поток лифта спит между шагами)
+     */
+    private void elevatorStep(int index) {
+        long delay = elevators.get(index).step();
+
+        // Нет работы - лифт ждет следующего запроса
+        if (delay < 0) {
+            elevatorScheduled[index] = false;
+            return;
+        }
+        schedule(clock.getElapsedMillis() + delay, () -> elevatorStep(index));
+    }
+
+    /**
+     * Событие симуляции: действие, привязанное к моменту виртуального времени.
+     * Одновременные события выполняются в порядке планирования.
+     */
+    private static final class SimulationEvent implements Comparable<SimulationEvent> {
+        private final long time;
+        private final long sequence;
+        private final Runnable action;
+
+        SimulationEvent(long time, long sequence, Runnable action) {
+            this.time = time;
+            this.sequence = sequence;
+            this.action = action;
+        }
+
+        @Override
+        public int compareTo(SimulationEvent other) {
+            int byTime = Long.compare(time, other.time);
+            return byTime != 0 ? byTime : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package elevator;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * События Java Flight Recorder для решений диспетчера. Пока запись JFR
+ * не идет, события не фиксируются и почти ничего не стоят; поля заполняются
+ * только после shouldCommit().
+ *
+ * Запись: java -XX:StartFlightRecording=filename=dispatch.jfr ...,
+ * просмотр: jfr print --events elevator.DispatchBatch,elevator.Assign dispatch.jfr
+ */
+final class DispatchEvents {
+    static {
+        FlightRecorder.register(Batch.class);
+        FlightRecorder.register(Assign.class);
+    }
+
+    private DispatchEvents() {
+    }
+
+    /**
+     * Регистрация классов событий (в инициализаторе класса). Первое событие
+     * в процессе поднимает инфраструктуру JFR и инструментирует класс - сотни
+     * миллисекунд, поэтому диспетчер вызывает это при создании, а не платит
+     * на первом пакете вызовов. Повторные вызовы ничего не стоят.
+     */
+    static void register() {
+        // Вся работа - в static-блоке
+    }
+
+    /**
+     * Назначение одного пакета вызовов целиком (длительность события - время решения)
+     */
+    @Name("elevator.DispatchBatch")
+    @Label("Dispatch Batch")
+    @Category({ "Elevator", "Dispatcher" })
+    @StackTrace(false)
+    static final class Batch extends Event {
+        @Label("Calls")
+        int calls;
+
+        @Label("Strategy")
+        String strategy;
+
+        @Label("Max Queue Residence")
+        @Description("Longest time a call of the batch spent in the dispatcher queue")
+        @Timespan(Timespan.NANOSECONDS)
+        long maxQueueResidence;
+
+        @Label("Planning Time")
+        @Description("Cost evaluation over the fleet snapshot")
+        @Timespan(Timespan.NANOSECONDS)
+        long planning;
+    }
+
+    /**
+     * Передача вызова лифту: длительность события включает ожидание замка лифта
+     */
+    @Name("elevator.Assign")
+    @Label("Assign Call To Car")
+    @Category({ "Elevator", "Dispatcher" })
+    @StackTrace(false)
+    static final class Assign extends Event {
+        @Label("Elevator")
+        int elevator;
+
+        @Label("Floor")
+        int floor;
+
+        @Label("Direction")
+        String direction;
+
+        @Label("Car Status")
+        @Description("Car status when the dispatcher started waiting for its lock")
+        String carStatus;
+    }
+}
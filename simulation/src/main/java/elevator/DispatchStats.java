@@ -0,0 +1,145 @@
+package elevator;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Статистика пакетного назначения вызовов диспетчером:
+ * размер пакетов, время принятия решения по пакету и ожидание вызова
+ * в очереди до назначения (во времени симуляции), а также повторные нажатия
+ * кнопок, поглощенные при приеме вызова.
+ * Задержки самого диспетчера (реальное время, микросекунды) - в гистограммах:
+ * пребывание вызова в очереди, оценка стоимости по парку, передача вызова
+ * лифту вместе с ожиданием его замка и решение по пакету целиком.
+ * Пакеты пишет только поток диспетчера, читать можно из любого потока.
+ */
+final class DispatchStats {
+    private final LongAdder batches = new LongAdder(); // Обработанные пакеты
+    private final LongAdder requests = new LongAdder(); // Назначенные вызовы
+    private final LongAccumulator maxBatchSize = new LongAccumulator(Math::max, 0);
+    private final LongAdder decisionNanos = new LongAdder(); // Суммарное время решений
+    private final LongAccumulator maxDecisionNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder latencyMillis = new LongAdder(); // Суммарное ожидание в очереди
+    private final LongAccumulator maxLatencyMillis = new LongAccumulator(Math::max, 0);
+    private final LatencyHistogram latency = new LatencyHistogram(); // Ожидание от нажатия до назначения
+    private final LongAdder coalesced = new LongAdder(); // Поглощенные повторные нажатия
+    private final LatencyHistogram residence = new LatencyHistogram("us"); // От приема до начала пакета
+    private final LatencyHistogram planning = new LatencyHistogram("us"); // Оценка стоимости по снимкам парка
+    private final LatencyHistogram apply = new LatencyHistogram("us"); // Передача вызова лифту с ожиданием замка
+    private final LatencyHistogram decision = new LatencyHistogram("us"); // Пакет целиком
+
+    void recordBatch(int size, long decisionTimeNanos) {
+        batches.increment();
+        requests.add(size);
+        maxBatchSize.accumulate(size);
+        decisionNanos.add(decisionTimeNanos);
+        maxDecisionNanos.accumulate(decisionTimeNanos);
+        decision.record(decisionTimeNanos / 1000);
+    }
+
+    void recordQueueResidence(long nanos) {
+        residence.record(nanos / 1000);
+    }
+
+    void recordPlanning(long nanos) {
+        planning.record(nanos / 1000);
+    }
+
+    void recordApply(long nanos) {
+        apply.record(nanos / 1000);
+    }
+
+    void recordLatency(long millis) {
+        latencyMillis.add(millis);
+        maxLatencyMillis.accumulate(millis);
+        latency.record(millis);
+    }
+
+    void recordCoalesced() {
+        coalesced.increment();
+    }
+
+    public long getBatchCount() {
+        return batches.sum();
+    }
+
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    public double getAverageBatchSize() {
+        long count = batches.sum();
+        return count == 0 ? 0 : (double) requests.sum() / count;
+    }
+
+    public long getMaxBatchSize() {
+        return maxBatchSize.get();
+    }
+
+    public long getAverageDecisionNanos() {
+        long count = batches.sum();
+        return count == 0 ? 0 : decisionNanos.sum() / count;
+    }
+
+    public long getMaxDecisionNanos() {
+        return maxDecisionNanos.get();
+    }
+
+    public long getAverageLatencyMillis() {
+        long count = requests.sum();
+        return count == 0 ? 0 : latencyMillis.sum() / count;
+    }
+
+    public long getTotalLatencyMillis() {
+        return latencyMillis.sum();
+    }
+
+    /**
+     * Распределение ожидания от нажатия кнопки до назначения лифта
+     */
+    public LatencyHistogram getLatencyHistogram() {
+        return latency;
+    }
+
+    public long getMaxLatencyMillis() {
+        return maxLatencyMillis.get();
+    }
+
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    public LatencyHistogram getQueueResidence() {
+        return residence;
+    }
+
+    public LatencyHistogram getPlanning() {
+        return planning;
+    }
+
+    public LatencyHistogram getApply() {
+        return apply;
+    }
+
+    public LatencyHistogram getDecision() {
+        return decision;
+    }
+
+    /**
+     * Распределения задержек диспетчера одной строкой
+     */
+    public String latencySummary() {
+        return "queue residence " + residence + "; planning " + planning + "; apply (with car lock wait) "
+                + apply + "; batch decision " + decision;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("batches: %d, calls: %d, batch size avg/max: %.1f/%d, "
+                + "decision avg/max: %d/%d us, queue latency avg/p99/max: %d/%d/%d ms, coalesced presses: %d",
+                getBatchCount(), getRequestCount(), getAverageBatchSize(), getMaxBatchSize(),
+                getAverageDecisionNanos() / 1000, getMaxDecisionNanos() / 1000,
+                getAverageLatencyMillis(), latency.getPercentile(0.99), getMaxLatencyMillis(),
+                getCoalescedCount());
+    }
+}
@@ -0,0 +1,14 @@
+package elevator;
+
+/**
+ * Как диспетчер распределяет пакет вызовов между лифтами.
+ * GREEDY - каждому вызову по очереди самый дешевый лифт с учетом уже
+ * назначенных в пакете вызовов.
+ * OPTIMAL - минимальная суммарная стоимость по матрице вызов x лифт
+ * (венгерский алгоритм, см. AssignmentSolver): один лифт не забирает
+ * несколько вызовов, пока рядом есть свободные.
+ */
+enum DispatchStrategy {
+    GREEDY,
+    OPTIMAL
+}
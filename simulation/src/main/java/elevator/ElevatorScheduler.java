@@ -0,0 +1,151 @@
+package elevator;
+
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Исполнение многих лифтов небольшим общим пулом вместо потока на лифт.
+ * Каждый шаг конечного автомата лифта (Elevator.step) планируется на момент,
+ * когда он нужен: следующий этаж или следующая фаза дверей. Простаивающий лифт
+ * ничего не планирует и не просыпается, пока новый запрос не разбудит его
+ * через слушатель работы - так же, как в DiscreteEventSimulation, только
+ * в реальном (или ускоренном) времени.
+ * Пул может быть общим для нескольких зданий (кампус): тогда планировщик
+ * его не останавливает, а только перестает планировать свои шаги.
+ */
+final class ElevatorScheduler {
+    private static final long RETRY_DELAY_MILLIS = 1000; // Повтор шага после ошибки (время симуляции)
+
+    private final List<Elevator> elevators; // Лифты под управлением планировщика
+    private final SimulationClock clock; // Перевод времени симуляции в реальное
+    private final EngineStats stats; // Пробуждения и опоздания шагов
+    private final ScheduledExecutorService executor;
+    private final boolean ownsExecutor; // Пул создан этим планировщиком
+    private final String poolDescription; // Для лога запуска
+    private volatile boolean stopped = false;
+    // 1 - следующий шаг лифта уже запланирован; не больше одного шага на лифт одновременно
+    private final AtomicIntegerArray scheduled;
+    private final Logger logger;
+
+    /**
+     * Планировщик со своим пулом
+     *
+     * @param threads - размер пула (шаги короткие, обычно хватает 1-2 потоков)
+     */
+    ElevatorScheduler(List<Elevator> elevators, SimulationClock clock, int threads, EngineStats stats,
+            Logger logger) {
+        this(elevators, clock, newPool(threads), true, threads + " threads", stats, logger);
+    }
+
+    /**
+     * Планировщик на общем пуле (пул останавливает его владелец)
+     */
+    ElevatorScheduler(List<Elevator> elevators, SimulationClock clock, ScheduledExecutorService sharedPool,
+            EngineStats stats, Logger logger) {
+        this(elevators, clock, sharedPool, false, "shared pool", stats, logger);
+    }
+
+    private ElevatorScheduler(List<Elevator> elevators, SimulationClock clock, ScheduledExecutorService executor,
+            boolean ownsExecutor, String poolDescription, EngineStats stats, Logger logger) {
+        this.elevators = elevators;
+        this.clock = clock;
+        this.stats = stats;
+        this.scheduled = new AtomicIntegerArray(elevators.size());
+        this.logger = logger;
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+        this.poolDescription = poolDescription;
+    }
+
+    private static ScheduledThreadPoolExecutor newPool(int threads) {
+        ScheduledThreadPoolExecutor pool = new ScheduledThreadPoolExecutor(threads,
+                ThreadMode.PLATFORM.newThreadFactory("Elevator-Scheduler"));
+        pool.setRemoveOnCancelPolicy(true);
+        return pool;
+    }
+
+    void start() {
+        for (int i = 0; i < elevators.size(); i++) {
+            final int index = i;
+            elevators.get(i).setWorkListener(() -> wake(index));
+            // Лифт мог получить запросы до запуска
+            wake(index);
+        }
+        logger.logSystem("Elevator scheduler STARTED (" + elevators.size() + " elevators, "
+                + poolDescription + ")");
+    }
+
+    void shutdown() {
+        stopped = true;
+        for (Elevator elevator : elevators) {
+            elevator.setWorkListener(null);
+        }
+        if (ownsExecutor) {
+            executor.shutdownNow();
+            try {
+                if (!executor.awaitTermination(2, TimeUnit.SECONDS)) {
+                    logger.logError("Elevator scheduler did not stop in time");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        logger.logSystem("Elevator scheduler STOPPED");
+    }
+
+    /**
+     * Планирует шаг лифта немедленно, если он еще не запланирован
+     * (вызывается слушателем работы под замком лифта)
+     */
+    private void wake(int index) {
+        if (scheduled.compareAndSet(index, 0, 1)) {
+            submit(index, 0);
+        }
+    }
+
+    private void submit(int index, long realDelayNanos) {
+        long due = clock.nanoTime() + realDelayNanos;
+        if (stopped || executor.isShutdown()) {
+            return;
+        }
+        try {
+            executor.schedule(() -> step(index, due), realDelayNanos, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            // Пул остановлен между проверкой и планированием
+            scheduled.set(index, 0);
+        }
+    }
+
+    private void step(int index, long due) {
+        if (stopped) {
+            return;
+        }
+        stats.recordLateness(due, clock.nanoTime());
+        Elevator elevator = elevators.get(index);
+        long delay;
+        try {
+            delay = elevator.step();
+        } catch (RuntimeException e) {
+            // Исключение пул бы проглотил, а отметка осталась бы навсегда: лифт встал бы молча.
+            // Пишем ошибку и повторяем шаг с паузой, чтобы постоянная ошибка не занимала пул
+            logger.logError("Elevator #" + (index + 1) + " step failed: " + e);
+            submit(index, clock.toRealNanos(RETRY_DELAY_MILLIS));
+            return;
+        }
+        stats.recordWakeup(delay < 0);
+        if (delay >= 0) {
+            submit(index, clock.toRealNanos(delay));
+            return;
+        }
+        // Лифт свободен: снимаем отметку и перепроверяем работу, чтобы не потерять
+        // запрос, пришедший между step() и снятием отметки
+        scheduled.set(index, 0);
+        if (elevator.hasWork()) {
+            wake(index);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package elevator;
+
+/**
+ * Упаковка состояния лифта в одно значение long.
+ * Лифт публикует снимок в volatile-поле после каждого изменения под своим замком,
+ * а диспетчер и вывод статуса читают его без блокировок: этаж, направление,
+ * статус, число пассажиров и остановок всегда согласованы между собой.
+ *
+ * Раскладка битов (от младших к старшим):
+ * этаж 16 | направление 2 | статус 3 | пассажиры 8 | остановки 16
+ * Этаж больше 65535 не помещается и отклоняется; пассажиры и остановки
+ * ограничиваются шириной поля (счетчики для оценки стоимости, не для учета).
+ */
+final class ElevatorSnapshot {
+    private static final int FLOOR_SHIFT = 0;
+    private static final int DIRECTION_SHIFT = 16;
+    private static final int STATUS_SHIFT = 18;
+    private static final int PASSENGERS_SHIFT = 21;
+    private static final int STOPS_SHIFT = 29;
+
+    private static final long FLOOR_MASK = 0xFFFF;
+    private static final long DIRECTION_MASK = 0x3;
+    private static final long STATUS_MASK = 0x7;
+    private static final long PASSENGERS_MASK = 0xFF;
+    private static final long STOPS_MASK = 0xFFFF;
+
+    static final int MAX_FLOOR = (int) FLOOR_MASK; // Наибольший этаж, который помещается в снимок
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final ElevatorStatus[] STATUSES = ElevatorStatus.values();
+
+    static {
+        // Новые значения перечислений должны помещаться в свои поля
+        if (DIRECTIONS.length > DIRECTION_MASK + 1 || STATUSES.length > STATUS_MASK + 1) {
+            throw new IllegalStateException("Direction or status does not fit in snapshot");
+        }
+    }
+
+    private ElevatorSnapshot() {
+    }
+
+    static long pack(int floor, Direction direction, ElevatorStatus status, int passengers, int stops) {
+        if (floor < 0 || floor > MAX_FLOOR) {
+            throw new IllegalArgumentException("Floor does not fit in snapshot: " + floor);
+        }
+        return ((long) floor << FLOOR_SHIFT)
+                | ((long) direction.ordinal() << DIRECTION_SHIFT)
+                | ((long) status.ordinal() << STATUS_SHIFT)
+                | (clamp(passengers, PASSENGERS_MASK) << PASSENGERS_SHIFT)
+                | (clamp(stops, STOPS_MASK) << STOPS_SHIFT);
+    }
+
+    /**
+     * Значение в пределах поля: отрицательное - 0, слишком большое - наибольшее
+     */
+    private static long clamp(int value, long mask) {
+        return Math.max(0, Math.min(value, (int) mask));
+    }
+
+    static int floor(long snapshot) {
+        return (int) ((snapshot >>> FLOOR_SHIFT) & FLOOR_MASK);
+    }
+
+    static Direction direction(long snapshot) {
+        return DIRECTIONS[(int) ((snapshot >>> DIRECTION_SHIFT) & DIRECTION_MASK)];
+    }
+
+    static ElevatorStatus status(long snapshot) {
+        return STATUSES[(int) ((snapshot >>> STATUS_SHIFT) & STATUS_MASK)];
+    }
+
+    static int passengers(long snapshot) {
+        return (int) ((snapshot >>> PASSENGERS_SHIFT) & PASSENGERS_MASK);
+    }
+
+    static int stops(long snapshot) {
+        return (int) ((snapshot >>> STOPS_SHIFT) & STOPS_MASK);
+    }
+
+    /**
+     * Тот же снимок с другим числом остановок (для оценки парка с учетом
+     * уже назначенных, но еще не опубликованных вызовов)
+     */
+    static long withStops(long snapshot, int stops) {
+        return (snapshot & ~(STOPS_MASK << STOPS_SHIFT)) | (clamp(stops, STOPS_MASK) << STOPS_SHIFT);
+    }
+
+    static String toString(long snapshot) {
+        return "Floor " + floor(snapshot) + " | " + status(snapshot).getDescription() + " | " +
+                direction(snapshot).getDescription() + " | Passengers: " + passengers(snapshot) +
+                " | Stops: " + stops(snapshot);
+    }
+}
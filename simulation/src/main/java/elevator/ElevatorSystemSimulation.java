@@ -0,0 +1,2945 @@
+package elevator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.*;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import javax.management.JMException;
+
+
+// возможные статусы лифта
+enum ElevatorStatus {
+    IDLE("IDLE"), // лифт стоит на этаже, без движения
+    MOVING("MOVING"), // лифт движется 
+    DOORS_OPENING("DOORS OPENING"), // лифт остановился, двери открываются
+    DOORS_OPEN("DOORS OPEN"), // лифт остановился, двери открыты
+    DOORS_CLOSING("DOORS CLOSING"); // двери закрываются
+
+    private final String description;
+
+    ElevatorStatus(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
+
+// направления движения 
+enum Direction {
+    UP("UP"), // движение вверх
+    DOWN("DOWN"), // движение вниз
+    NONE("NONE"); // нет направления (лифт стоит)
+
+    private final String description;
+
+    Direction(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
+
+
+//класс для внутреннего запроса пассажира (выбор этажа в лифте)
+class InternalRequest {
+    private final int targetFloor; //целевой этаж
+    private final long timestamp; //время создания запроса
+
+    public InternalRequest(int targetFloor, long timestamp) {
+        this.targetFloor = targetFloor;
+        this.timestamp = timestamp;
+    }
+
+    public int getTargetFloor() {
+        return targetFloor;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return "Internal request to floor " + targetFloor;
+    }
+}
+
+//класс для внешнего запроса (вызов лифта с этажа)
+class ExternalRequest {
+    private final int floor; //этаж, с которого вызывают лифт
+    private final Direction direction; //направление, в котором хочет ехать пассажир
+    private final long timestamp; //время создания запроса
+    private final long createdNanos; //момент создания в реальном времени (замер задержки диспетчера)
+
+    public ExternalRequest(int floor, Direction direction, long timestamp) {
+        this(floor, direction, timestamp, RealTimeClock.INSTANCE.nanoTime());
+    }
+
+    /**
+     * @param createdNanos - момент создания по SimulationClock.nanoTime
+     */
+    public ExternalRequest(int floor, Direction direction, long timestamp, long createdNanos) {
+        this.floor = floor;
+        this.direction = direction;
+        this.timestamp = timestamp;
+        this.createdNanos = createdNanos;
+    }
+
+    public int getFloor() {
+        return floor;
+    }
+
+    public Direction getDirection() {
+        return direction;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public long getCreatedNanos() {
+        return createdNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "External call from floor " + floor + " going " + direction;
+    }
+}
+
+/**
+ * класс Elevator представляет один лифт в системе.
+ * каждый лифт работает в отдельном потоке.
+ * лифт имеет состояние, обрабатывает запросы и перемещается между этажами.
+ */
+class Elevator implements Runnable {
+    private final int id; //уникальный идентификатор лифта
+    private int currentFloor; 
+    private Direction direction; 
+    private ElevatorStatus status; 
+    private final int maxFloor; 
+    private final int minFloor = 1;  
+
+    //очередь внутренних запросов (выбор этажей внутри лифта)
+    private final BlockingQueue<InternalRequest> internalRequests;
+
+    //битовые таблицы остановок: вызовы вверх, вызовы вниз и выбранные в кабине этажи
+    private final StopTable upHallCalls;
+    private final StopTable downHallCalls;
+    private final StopTable carCalls;
+
+    //примитивы синхронизации для потокобезопасности
+    private final ReentrantLock lock; // Замок для синхронизации
+    private final Condition condition; // Условие для ожидания работы
+
+    private volatile boolean running = true; //флаг работы потока лифта
+    private int passengerCount = 0; 
+    private final int maxCapacity = 10; //максимальная вместимость лифта
+
+    //согласованный снимок состояния для чтения без замка (см. ElevatorSnapshot)
+    private volatile long snapshot;
+
+    private final Logger logger; //логгер для записи событий
+    private final SimulationClock clock; //источник времени для задержек и меток запросов
+
+    //слушатель появления работы (используется событийным режимом и планировщиком вместо потока лифта)
+    private Runnable workListener;
+
+    //направление повторного вызова с текущего этажа для оставшихся пассажиров (NONE - не нужен)
+    private Direction reissueDirection = Direction.NONE;
+
+    //счетчики пробуждений цикла run() (null - не собираются)
+    private volatile EngineStats engineStats;
+
+    //таблица активных вызовов здания: снимаем вызов при открытии дверей (null - таблицы нет)
+    private HallCallTable hallCallTable;
+
+    //свой поток случайных чисел для выхода пассажиров (используется под замком лифта)
+    private final SplittableRandom exitRandom;
+
+    //пассажиры генератора потока в кабине: этаж назначения и время прихода на этаж
+    private final int[] riderDestination = new int[maxCapacity];
+    private final long[] riderArrival = new long[maxCapacity];
+    private int riders = 0;
+
+    //счетчики работы в реестре метрик здания (до подключения - собственные, никуда не выводятся);
+    //увеличиваются под замком лифта
+    private LongAdder tripCounter = new LongAdder(); //выезды из состояния ожидания
+    private LongAdder stopCounter = new LongAdder(); //остановки с открытием дверей
+    private LongAdder floorCounter = new LongAdder(); //пройденные этажи
+    private LongAdder doorCycleCounter = new LongAdder(); //полные циклы дверей
+    private LongAdder rejectedCounter = new LongAdder(); //отказы в посадке из-за заполнения
+
+    //гистограммы обслуживания: ожидание вызовов с этажей, выполненных этим лифтом, и поездки в нем
+    private final LatencyHistogram waitTimes = new LatencyHistogram();
+    private final LatencyHistogram journeyTimes = new LatencyHistogram();
+
+    //длительности фаз работы лифта в миллисекундах
+    static final long MOVE_TIME_MS = 1000; //движение между соседними этажами
+    static final long DOOR_OPENING_TIME_MS = 1000; //открытие дверей
+    static final long DOOR_DWELL_TIME_MS = 1000; //двери открыты, посадка и высадка
+    static final long DOOR_CLOSE_TIME_MS = 1000; //закрытие дверей
+
+    //разделитель блока остановки в логе
+    private static final String SEPARATOR = "--------------------------------------------------";
+
+    /**
+     * конструктор лифта, работающего в реальном времени
+     * 
+     * @param id       - идентификатор лифта
+     * @param maxFloor - максимальный этаж в здании
+     */
+    public Elevator(int id, int maxFloor) {
+        this(id, maxFloor, RealTimeClock.INSTANCE);
+    }
+
+    /**
+     * конструктор лифта
+     * 
+     * @param id       - идентификатор лифта
+     * @param maxFloor - максимальный этаж в здании
+     * @param clock    - источник времени
+     */
+    public Elevator(int id, int maxFloor, SimulationClock clock) {
+        this(id, maxFloor, clock, Logger.getInstance());
+    }
+
+    /**
+     * конструктор лифта со своим логгером (лифты здания в кампусе)
+     * 
+     * @param id       - идентификатор лифта
+     * @param maxFloor - максимальный этаж в здании
+     * @param clock    - источник времени
+     * @param logger   - логгер здания
+     */
+    public Elevator(int id, int maxFloor, SimulationClock clock, Logger logger) {
+        this(id, maxFloor, clock, logger, new SplittableRandom());
+    }
+
+    /**
+     * конструктор лифта с заданным потоком случайных чисел (воспроизводимые прогоны)
+     * 
+     * @param id         - идентификатор лифта
+     * @param maxFloor   - максимальный этаж в здании
+     * @param clock      - источник времени
+     * @param logger     - логгер здания
+     * @param exitRandom - поток случайных чисел для выхода пассажиров
+     */
+    Elevator(int id, int maxFloor, SimulationClock clock, Logger logger, SplittableRandom exitRandom) {
+        //этаж должен помещаться в снимок состояния
+        if (maxFloor > ElevatorSnapshot.MAX_FLOOR) {
+            throw new IllegalArgumentException("Too many floors: " + maxFloor + " (at most "
+                    + ElevatorSnapshot.MAX_FLOOR + ")");
+        }
+        this.id = id;
+        this.exitRandom = exitRandom;
+        this.clock = clock;
+        this.logger = logger;
+        this.currentFloor = 1; 
+        this.direction = Direction.NONE;
+        this.status = ElevatorStatus.IDLE;
+        this.maxFloor = maxFloor;
+        //используем потокобезопасные коллекции
+        this.internalRequests = new LinkedBlockingQueue<>();
+        this.upHallCalls = new StopTable(maxFloor);
+        this.downHallCalls = new StopTable(maxFloor);
+        this.carCalls = new StopTable(maxFloor);
+        this.lock = new ReentrantLock();
+        this.condition = lock.newCondition();
+        publishState();
+    }
+
+
+    public int getId() {
+        return id;
+    }
+
+    //геттеры читают опубликованный снимок и не берут замок
+
+    public int getCurrentFloor() {
+        return ElevatorSnapshot.floor(snapshot);
+    }
+
+    public Direction getDirection() {
+        return ElevatorSnapshot.direction(snapshot);
+    }
+
+    public ElevatorStatus getStatus() {
+        return ElevatorSnapshot.status(snapshot);
+    }
+
+    public int getPassengerCount() {
+        return ElevatorSnapshot.passengers(snapshot);
+    }
+
+    /**
+     * Ожидание на этаже: от первого нажатия до открытия дверей этого лифта
+     */
+    public LatencyHistogram getWaitTimes() {
+        return waitTimes;
+    }
+
+    /**
+     * Поездка: от прихода пассажира на этаж (или выбора этажа в кабине,
+     * если приход не моделируется) до высадки
+     */
+    public LatencyHistogram getJourneyTimes() {
+        return journeyTimes;
+    }
+
+    public boolean canAcceptPassenger() {
+        return ElevatorSnapshot.passengers(snapshot) < maxCapacity;
+    }
+
+    public int getMaxCapacity() {
+        return maxCapacity;
+    }
+
+    /**
+     * согласованный снимок состояния лифта (этаж, направление, статус, пассажиры, остановки)
+     * для разбора методами ElevatorSnapshot; читается без блокировки
+     */
+    public long getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * публикация снимка после изменения состояния; вызывается под замком
+     */
+    private void publishState() {
+        snapshot = ElevatorSnapshot.pack(currentFloor, direction, status, passengerCount, pendingStopCount());
+    }
+
+    /**
+     * установка слушателя, вызываемого при добавлении новой работы.
+     * вызывается под замком лифта, поэтому слушатель должен быть быстрым
+     */
+    void setWorkListener(Runnable listener) {
+        lock.lock();
+        try {
+            this.workListener = listener;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * подключение таблицы активных вызовов диспетчера
+     */
+    void attachHallCallTable(HallCallTable table) {
+        lock.lock();
+        try {
+            this.hallCallTable = table;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * подключение к реестру метрик здания: счетчики общие для всех лифтов
+     */
+    void setMetrics(MetricsRegistry metrics) {
+        lock.lock();
+        try {
+            tripCounter = metrics.counter("elevator.trips");
+            stopCounter = metrics.counter("elevator.stops");
+            floorCounter = metrics.counter("elevator.floorsTravelled");
+            doorCycleCounter = metrics.counter("elevator.doorCycles");
+            rejectedCounter = metrics.counter("elevator.rejectedFull");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * подключение счетчиков пробуждений и опозданий для цикла run()
+     */
+    void setEngineStats(EngineStats stats) {
+        this.engineStats = stats;
+    }
+
+    /**
+     * есть ли у лифта невыполненные запросы
+     */
+    boolean hasWork() {
+        lock.lock();
+        try {
+            return hasPendingStops() || !internalRequests.isEmpty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean hasPendingStops() {
+        return !upHallCalls.isEmpty() || !downHallCalls.isEmpty() || !carCalls.isEmpty();
+    }
+
+    /**
+     * число этажей, на которых запланирована остановка (вызовы с этажей и из кабины);
+     * этаж из нескольких таблиц - одна остановка
+     */
+    private int pendingStopCount() {
+        return StopTable.unionSize(upHallCalls, downHallCalls, carCalls);
+    }
+
+    /**
+     * таблица вызовов с этажей для пассажиров, едущих в заданном направлении
+     */
+    private StopTable hallCalls(Direction dir) {
+        return dir == Direction.UP ? upHallCalls : downHallCalls;
+    }
+
+    private static Direction opposite(Direction dir) {
+        if (dir == Direction.UP) {
+            return Direction.DOWN;
+        }
+        return dir == Direction.DOWN ? Direction.UP : Direction.NONE;
+    }
+
+    /**
+     * есть ли остановки строго за этажом floor по направлению dir
+     */
+    private boolean hasStopsBeyond(int floor, Direction dir) {
+        if (dir == Direction.UP) {
+            return upHallCalls.nextAbove(floor) != -1 || downHallCalls.nextAbove(floor) != -1 ||
+                    carCalls.nextAbove(floor) != -1;
+        }
+        if (dir == Direction.DOWN) {
+            return upHallCalls.nextBelow(floor) != -1 || downHallCalls.nextBelow(floor) != -1 ||
+                    carCalls.nextBelow(floor) != -1;
+        }
+        return false;
+    }
+
+    private boolean hasStopAt(int floor) {
+        return carCalls.contains(floor) || upHallCalls.contains(floor) || downHallCalls.contains(floor);
+    }
+
+    private void notifyWorkAdded() {
+        if (workListener != null) {
+            workListener.run();
+        }
+    }
+
+
+    /**
+     * добавление внешнего запроса (вызов лифта с этажа)
+     * 
+     * @param floor - этаж вызова
+     * @param dir   - направление движения
+     * @return true если запрос принят
+     */
+    public boolean addExternalRequest(int floor, Direction dir) {
+        //проверка корректности этажа
+        if (floor < minFloor || floor > maxFloor) {
+            logger.logElevator(id, LogLevel.ERROR, "ERROR: Invalid floor {}", floor);
+            return false;
+        }
+
+        lock.lock(); //захватываем замок для синхронизации
+        try {
+            //с крайних этажей можно уехать только в одну сторону
+            if (floor == maxFloor) {
+                dir = Direction.DOWN;
+            } else if (floor == minFloor) {
+                dir = Direction.UP;
+            }
+
+            //добавляем вызов в таблицу своего направления;
+            //если такой вызов уже есть, возвращаем true
+            StopTable calls = dir == Direction.NONE ? carCalls : hallCalls(dir);
+            if (!calls.add(floor)) {
+                return true;
+            }
+            logger.logElevator(id, LogLevel.INFO, "Accepted external request for floor {} (direction: {})",
+                    floor, dir);
+
+            //если лифт стоит без направления, задаем направление
+            if (direction == Direction.NONE) {
+                direction = (floor > currentFloor) ? Direction.UP : Direction.DOWN;
+                status = ElevatorStatus.MOVING;
+                tripCounter.increment();
+                condition.signalAll(); //будим поток лифта, если он ждет
+            }
+            notifyWorkAdded();
+
+            return true;
+        } finally {
+            publishState();
+            lock.unlock(); //всегда освобождаем замок
+        }
+    }
+
+    /**
+     * снятие вызова с этажа, назначенного этому лифту (вызов обслужит другой лифт);
+     * лифт без оставшейся работы перейдет в ожидание на следующем шаге
+     *
+     * @return true если такой вызов был
+     */
+    boolean cancelExternalRequest(int floor, Direction dir) {
+        lock.lock();
+        try {
+            if (floor == maxFloor) {
+                dir = Direction.DOWN;
+            } else if (floor == minFloor) {
+                dir = Direction.UP;
+            }
+            return dir != Direction.NONE && hallCalls(dir).remove(floor);
+        } finally {
+            publishState();
+            lock.unlock();
+        }
+    }
+
+    /**
+     * добавление внутреннего запроса (выбор этажа в лифте)
+     * 
+     * @param targetFloor - целевой этаж
+     * @return true если запрос принят
+     */
+    public boolean addInternalRequest(int targetFloor) {
+        //проверка корректности этажа
+        if (targetFloor < minFloor || targetFloor > maxFloor) {
+            logger.logElevator(id, LogLevel.ERROR, "ERROR: Invalid floor {}", targetFloor);
+            return false;
+        }
+
+        lock.lock();
+        try {
+            //проверка вместимости лифта
+            if (passengerCount >= maxCapacity) {
+                rejectedCounter.increment();
+                logger.logElevator(id, LogLevel.WARN, "FULL: Elevator full! Max {} passengers.", maxCapacity);
+                return false;
+            }
+
+            //создаем и добавляем запрос
+            InternalRequest request = new InternalRequest(targetFloor, clock.currentTimeMillis());
+            internalRequests.offer(request);
+            carCalls.add(targetFloor);
+
+            //увеличиваем счетчик пассажиров
+            passengerCount++;
+            logger.logElevator(id, LogLevel.INFO, "Passenger entered. Target floor {} (passengers: {})",
+                    targetFloor, passengerCount);
+
+            //если лифт стоит, начинаем движение
+            if (direction == Direction.NONE) {
+                direction = (targetFloor > currentFloor) ? Direction.UP : Direction.DOWN;
+                status = ElevatorStatus.MOVING;
+                tripCounter.increment();
+                condition.signalAll();
+            }
+            notifyWorkAdded();
+
+            return true;
+        } finally {
+            publishState();
+            lock.unlock();
+        }
+    }
+
+
+    /**
+     *пассажир выходит из лифта
+     */
+    public void passengerExits() {
+        lock.lock();
+        try {
+            if (passengerCount > 0) {
+                passengerCount--;
+                logger.logElevator(id, LogLevel.INFO, "Passenger exited. Remaining: {}", passengerCount);
+            }
+        } finally {
+            publishState();
+            lock.unlock();
+        }
+    }
+
+    /**
+     * остановка работы лифта (завершение потока)
+     */
+    public void stop() {
+        running = false; //устанавливаем флаг завершения
+        lock.lock();
+        try {
+            condition.signalAll(); //будим поток, если он ждет
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * перемещение лифта на один этаж
+     */
+    private void move() {
+        lock.lock();
+        try {
+            //разворачиваемся, если впереди по ходу остановок нет, а позади есть
+            if (!hasStopsBeyond(currentFloor, direction) &&
+                    hasStopsBeyond(currentFloor, opposite(direction))) {
+                direction = opposite(direction);
+            }
+            //остановок по ходу нет, но есть вызов на текущем этаже - двери откроются без движения
+            if (!hasStopsBeyond(currentFloor, direction) && hasStopAt(currentFloor)) {
+                return;
+            }
+
+            if (direction == Direction.UP) {
+                currentFloor++;
+                //если достигли верхнего этажа, меняем направление
+                if (currentFloor >= maxFloor) {
+                    direction = Direction.DOWN;
+                }
+            } else if (direction == Direction.DOWN) {
+                currentFloor--;
+                //если достигли нижнего этажа, меняем направление
+                if (currentFloor <= minFloor) {
+                    direction = Direction.UP;
+                }
+            }
+
+            floorCounter.increment();
+            logger.logElevator(id, LogLevel.DEBUG, "Moved to floor {} ({})", currentFloor, direction);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * остановка и открытие дверей, если на текущем этаже есть подходящий вызов:
+     * выбранный в кабине этаж, вызов по направлению движения или
+     * вызов в обратную сторону, если лифт здесь разворачивается
+     * 
+     * @return true если лифт остановился
+     */
+    private boolean openDoorsIfRequested() {
+        boolean stop = carCalls.contains(currentFloor) || hallCalls(direction).contains(currentFloor);
+        if (!stop && hallCalls(opposite(direction)).contains(currentFloor) &&
+                !hasStopsBeyond(currentFloor, direction)) {
+            //дальше по ходу никого нет: разворачиваемся и забираем пассажиров в обратную сторону
+            direction = opposite(direction);
+            stop = true;
+        }
+        if (!stop) {
+            return false;
+        }
+        status = ElevatorStatus.DOORS_OPENING;
+        stopCounter.increment();
+        logger.logElevator(id, LogLevel.DEBUG, SEPARATOR);
+        logger.logElevator(id, LogLevel.INFO, "STOPPED at floor {}", currentFloor);
+        logger.logElevator(id, LogLevel.DEBUG, "Doors opening...");
+        return true;
+    }
+
+    /**
+     * двери открыты: снимаем выполненные вызовы, пассажиры выходят
+     */
+    private void releaseCurrentFloor() {
+        status = ElevatorStatus.DOORS_OPEN;
+
+        // Снимаем выполненные вызовы: из кабины и с этажа по направлению движения
+        long now = clock.currentTimeMillis();
+        if (carCalls.remove(currentFloor)) {
+            recordRides(now);
+        }
+        if (hallCalls(direction).remove(currentFloor) && hallCallTable != null) {
+            long wait = hallCallTable.serve(currentFloor, direction, now);
+            if (wait >= 0) {
+                waitTimes.record(wait);
+            }
+        }
+
+        // Пассажиры с известным назначением выходят на своем этаже, ожидающие садятся
+        if (hallCallTable != null) {
+            exchangePassengers(hallCallTable.getPassengers());
+        }
+
+        // Случайно некоторые пассажиры без известного назначения выходят
+        if (passengerCount > riders && exitRandom.nextBoolean()) {
+            passengerExits();
+        }
+    }
+
+    /**
+     * выбор этажа в кабине выполнен: время от нажатия до прибытия идет
+     * в гистограмму поездок (для пассажиров без известного прихода на этаж).
+     * Очередь запросов из кабины очищается только здесь: этаж остается в carCalls,
+     * пока лифт на нем не остановится, даже если лифт едет от него в другую сторону
+     */
+    private void recordRides(long now) {
+        Iterator<InternalRequest> iterator = internalRequests.iterator();
+        while (iterator.hasNext()) {
+            InternalRequest request = iterator.next();
+            if (request.getTargetFloor() == currentFloor) {
+                journeyTimes.record(now - request.getTimestamp());
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * высадка пассажиров, доехавших до этажа, и посадка ожидающих в сторону движения
+     */
+    private void exchangePassengers(WaitingPassengers passengers) {
+        long now = clock.currentTimeMillis();
+        int kept = 0;
+        for (int i = 0; i < riders; i++) {
+            if (riderDestination[i] == currentFloor) {
+                passengers.deliver(riderArrival[i], now);
+                journeyTimes.record(now - riderArrival[i]);
+                passengerCount--;
+            } else {
+                riderDestination[kept] = riderDestination[i];
+                riderArrival[kept] = riderArrival[i];
+                kept++;
+            }
+        }
+        if (kept < riders) {
+            logger.logElevator(id, LogLevel.INFO, "{} passengers exited at floor {}", riders - kept, currentFloor);
+            riders = kept;
+        }
+
+        if (direction == Direction.NONE) {
+            return;
+        }
+        int before = riders;
+        riders = passengers.board(currentFloor, direction, riderDestination, riderArrival, riders,
+                riders + maxCapacity - passengerCount, now);
+        for (int i = before; i < riders; i++) {
+            carCalls.add(riderDestination[i]);
+            passengerCount++;
+        }
+        if (riders > before) {
+            logger.logElevator(id, LogLevel.INFO, "{} passengers boarded at floor {}", riders - before,
+                    currentFloor);
+        }
+        // Не всем хватило места, а вызов уже снят - вызов подается заново после снятия замка (step)
+        if (passengers.hasWaiting(currentFloor, direction) && !hallCallTable.isActive(currentFloor, direction)) {
+            reissueDirection = direction;
+        }
+    }
+
+    /**
+     * двери закрыты: продолжаем движение или переходим в режим ожидания
+     */
+    private void finishDoorCycle() {
+        doorCycleCounter.increment();
+        // Если больше нет запросов, переходим в режим ожидания
+        if (!hasPendingStops() && internalRequests.isEmpty()) {
+            status = ElevatorStatus.IDLE;
+            direction = Direction.NONE;
+            logger.logElevator(id, LogLevel.INFO, "IDLE at floor {}", currentFloor);
+        } else {
+            status = ElevatorStatus.MOVING;
+        }
+        logger.logElevator(id, LogLevel.DEBUG, SEPARATOR);
+    }
+
+    /**
+     * Один переход конечного автомата лифта.
+     * Выполняется под замком, но сам ничего не ждет: возвращает, через сколько
+     * миллисекунд времени симуляции нужен следующий переход.
+     * Ожидание (движение между этажами, работа дверей) происходит вне замка,
+     * поэтому диспетчер может опрашивать лифт в любой фазе.
+     * 
+     * MOVING -> (остановка) DOORS_OPENING -> DOORS_OPEN -> DOORS_CLOSING -> MOVING / IDLE
+     * 
+     * @return задержка до следующего перехода или -1, если работы нет и нужно ждать запроса
+     */
+    long step() {
+        long delay;
+        int floor;
+        Direction reissue;
+        lock.lock();
+        try {
+            delay = advance();
+            floor = currentFloor;
+            reissue = reissueDirection;
+            reissueDirection = Direction.NONE;
+        } finally {
+            publishState();
+            lock.unlock();
+        }
+        // Оставшиеся на этаже пассажиры вызывают лифт заново уже без замка лифта:
+        // обработчик кладет вызов в очередь диспетчера и пишет в лог
+        if (reissue != Direction.NONE) {
+            hallCallTable.getPassengers().reissue(floor, reissue);
+        }
+        return delay;
+    }
+
+    /**
+     * переход конечного автомата (под замком лифта)
+     */
+    private long advance() {
+        switch (status) {
+            case DOORS_OPENING:
+                releaseCurrentFloor();
+                return DOOR_DWELL_TIME_MS;
+            case DOORS_OPEN:
+                status = ElevatorStatus.DOORS_CLOSING;
+                logger.logElevator(id, LogLevel.DEBUG, "Doors closing...");
+                return DOOR_CLOSE_TIME_MS;
+            case DOORS_CLOSING:
+                finishDoorCycle();
+                return MOVE_TIME_MS;
+            case MOVING:
+                if (!hasPendingStops() && internalRequests.isEmpty()) {
+                    // Работы не осталось: лифт переходит в ожидание
+                    status = ElevatorStatus.IDLE;
+                    direction = Direction.NONE;
+                    logger.logElevator(id, LogLevel.INFO, "IDLE at floor {}", currentFloor);
+                    return -1;
+                }
+                move(); // Перемещаемся на следующий этаж
+                if (openDoorsIfRequested()) { // Останавливаемся, если нужно
+                    return DOOR_OPENING_TIME_MS;
+                }
+                return MOVE_TIME_MS;
+            default:
+                return (!hasPendingStops() && internalRequests.isEmpty()) ? -1 : MOVE_TIME_MS;
+        }
+    }
+
+    /**
+     * Основной метод работы лифта (запускается в отдельном потоке)
+     */
+    @Override
+    public void run() {
+        logger.logSystem("Elevator #" + (id + 1) + " STARTED");
+
+        // Основной цикл работы лифта
+        while (running) {
+            long delay;
+            EngineStats stats = engineStats;
+            lock.lock();
+            try {
+                delay = step();
+                if (stats != null) {
+                    stats.recordWakeup(delay < 0);
+                }
+                // Ожидание, пока появится работа для лифта
+                if (delay < 0) {
+                    try {
+                        clock.await(condition, 100);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    continue;
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            // Пауза до следующего перехода (движение или работа дверей) без удержания замка
+            long due = clock.nanoTime() + clock.toRealNanos(delay);
+            try {
+                clock.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (stats != null) {
+                stats.recordLateness(due, clock.nanoTime());
+            }
+        }
+
+        logger.logSystem("Elevator #" + (id + 1) + " STOPPED");
+    }
+
+    /**
+     * Расчет "стоимости" назначения запроса этому лифту
+     * Алгоритм выбора лучшего лифта для запроса
+     * 
+     * @param floor - этаж вызова
+     * @param dir   - направление вызова
+     * @return стоимость (меньше = лучше)
+     */
+    public int calculateCost(int floor, Direction dir) {
+        return calculateCost(snapshot, floor, dir);
+    }
+
+    /**
+     * Расчет стоимости по заданному снимку состояния, без блокировок.
+     * Позволяет диспетчеру оценивать весь парк по одному согласованному виду.
+     */
+    int calculateCost(long state, int floor, Direction dir) {
+        // Если лифт полный, возвращаем максимальную стоимость
+        if (ElevatorSnapshot.passengers(state) >= maxCapacity) {
+            return Integer.MAX_VALUE;
+        }
+
+        int currentFloor = ElevatorSnapshot.floor(state);
+        Direction direction = ElevatorSnapshot.direction(state);
+        int cost = 0;
+
+        // Сценарий 1: Лифт стоит
+        if (ElevatorSnapshot.status(state) == ElevatorStatus.IDLE) {
+            cost = Math.abs(currentFloor - floor);
+        }
+        // Сценарий 2: Лифт движется в том же направлении
+        else if (direction == dir) {
+            // Если запрос по пути движения
+            if ((dir == Direction.UP && floor >= currentFloor) ||
+                    (dir == Direction.DOWN && floor <= currentFloor)) {
+                cost = Math.abs(currentFloor - floor);
+            } else {
+                // Лифту нужно доехать до конца и вернуться
+                cost = Math.abs(currentFloor - (dir == Direction.UP ? maxFloor : minFloor)) +
+                        Math.abs((dir == Direction.UP ? maxFloor : minFloor) - floor);
+            }
+        }
+        // Сценарий 3: Лифт движется в противоположном направлении
+        else {
+            cost = Math.abs(currentFloor - (direction == Direction.UP ? maxFloor : minFloor)) +
+                    Math.abs((direction == Direction.UP ? maxFloor : minFloor) - floor);
+        }
+
+        // Учитываем количество уже запланированных остановок
+        cost += ElevatorSnapshot.stops(state) * 2;
+
+        return cost;
+    }
+}
+
+
+/**
+ * Класс Dispatcher отвечает за распределение запросов между лифтами.
+ * Работает в отдельном потоке и выбирает оптимальный лифт для каждого запроса.
+ * Накопившиеся вызовы забираются из очереди пакетом и назначаются вместе
+ * по одному согласованному снимку парка.
+ * Повторные нажатия кнопки уже активного вызова (этаж и направление)
+ * поглощаются при приеме по таблице вызовов и в очередь не попадают.
+ */
+class Dispatcher implements Runnable {
+    private final List<Elevator> elevators; // Список всех лифтов в системе
+    private final BlockingQueue<ExternalRequest> externalRequests; // Очередь внешних запросов
+    private volatile boolean running = true; // Флаг работы потока диспетчера
+    private final Logger logger;
+    private final int maxFloor; 
+    private final SimulationClock clock; // Источник времени для меток запросов
+
+    // Настройки пакетной обработки
+    private volatile int maxBatchSize = 256; // Максимум вызовов в одном пакете
+    private volatile long batchWindowMillis = 0; // Сколько ждать добора пакета после первого вызова
+    private final DispatchStats stats = new DispatchStats();
+    private volatile DispatchStrategy strategy = DispatchStrategy.GREEDY; // Способ распределения пакета
+    private final AssignmentSolver solver = new AssignmentSolver(); // Для стратегии OPTIMAL
+
+    private volatile Consumer<ExternalRequest> overflowHandler; // Куда отдавать вызовы, если все лифты заполнены
+    private final FloorIndex floorIndex; // Лифты по этажам снимков пакета (только поток диспетчера)
+    private final HallCallTable hallCalls; // Активные вызовы: повторные нажатия не попадают в очередь
+    private volatile boolean indexedSelection = true; // Выбор лифта через индекс по этажам
+
+    // Счетчики в реестре метрик здания (до подключения - собственные, никуда не выводятся)
+    private LongAdder decisionCounter = new LongAdder(); // Назначенные вызовы
+    private LongAdder batchCounter = new LongAdder(); // Обработанные пакеты
+    private LongAdder unassignedCounter = new LongAdder(); // Вызовы, для которых в пакете не нашлось лифта
+    private LongAdder droppedCounter = new LongAdder(); // Отброшенные вызовы (некому передать)
+    private LongAdder coalescedCounter = new LongAdder(); // Поглощенные повторные нажатия
+
+    public Dispatcher(List<Elevator> elevators, int maxFloor) {
+        this(elevators, maxFloor, RealTimeClock.INSTANCE);
+    }
+
+    public Dispatcher(List<Elevator> elevators, int maxFloor, SimulationClock clock) {
+        this(elevators, maxFloor, clock, Logger.getInstance());
+    }
+
+    public Dispatcher(List<Elevator> elevators, int maxFloor, SimulationClock clock, Logger logger) {
+        this(elevators, maxFloor, clock, logger, new HallCallTable(maxFloor));
+    }
+
+    /**
+     * @param hallCalls - таблица активных вызовов (общая для всех зон здания)
+     */
+    Dispatcher(List<Elevator> elevators, int maxFloor, SimulationClock clock, Logger logger,
+            HallCallTable hallCalls) {
+        this.elevators = elevators;
+        this.hallCalls = hallCalls;
+        // Оставшиеся на этаже пассажиры по умолчанию вызывают лифт через очередь этого диспетчера
+        hallCalls.getPassengers().setReissueHandler(this::addExternalRequest);
+        this.logger = logger;
+        this.externalRequests = new LinkedBlockingQueue<>();
+        this.maxFloor = maxFloor;
+        this.clock = clock;
+        this.floorIndex = new FloorIndex(maxFloor);
+        for (int i = 0; i < elevators.size(); i++) {
+            elevators.get(i).attachHallCallTable(hallCalls);
+        }
+        DispatchEvents.register(); // Не на первом пакете: первое событие JFR стоит сотни миллисекунд
+    }
+
+    /**
+     * Добавление внешнего запроса в очередь
+     */
+    public void addExternalRequest(int floor, Direction direction) {
+        // Проверка корректности этажа
+        if (floor < 1 || floor > maxFloor) {
+            logger.logError("Invalid floor number: {}", floor);
+            return;
+        }
+
+        // Повторное нажатие уже активного вызова только учитывается
+        long now = clock.currentTimeMillis();
+        if (direction != Direction.NONE && !hallCalls.press(floor, direction, now)) {
+            stats.recordCoalesced();
+            coalescedCounter.increment();
+            return;
+        }
+
+        ExternalRequest request = new ExternalRequest(floor, direction, now, clock.nanoTime());
+        externalRequests.offer(request);
+        logger.logDispatcher("Received call: {}", request);
+    }
+
+    public void stop() {
+        running = false;
+    }
+
+    /**
+     * Подключение к реестру метрик здания (до запуска потоков); счетчики общие для всех зон
+     */
+    void setMetrics(MetricsRegistry metrics) {
+        decisionCounter = metrics.counter("dispatch.decisions");
+        batchCounter = metrics.counter("dispatch.batches");
+        unassignedCounter = metrics.counter("dispatch.unassigned");
+        droppedCounter = metrics.counter("dispatch.dropped");
+        coalescedCounter = metrics.counter("dispatch.coalesced");
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public void setMaxBatchSize(int maxBatchSize) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive: " + maxBatchSize);
+        }
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public long getBatchWindowMillis() {
+        return batchWindowMillis;
+    }
+
+    /**
+     * Окно добора пакета во времени симуляции: 0 - назначать сразу то, что уже есть в очереди
+     */
+    public void setBatchWindowMillis(long batchWindowMillis) {
+        if (batchWindowMillis < 0) {
+            throw new IllegalArgumentException("Batch window must not be negative: " + batchWindowMillis);
+        }
+        this.batchWindowMillis = batchWindowMillis;
+    }
+
+    public DispatchStats getStats() {
+        return stats;
+    }
+
+    HallCallTable getHallCalls() {
+        return hallCalls;
+    }
+
+    /**
+     * Вызовы, ожидающие назначения (счетчик очереди, без ее замков)
+     */
+    public int getQueueDepth() {
+        return externalRequests.size();
+    }
+
+    public DispatchStrategy getStrategy() {
+        return strategy;
+    }
+
+    public void setStrategy(DispatchStrategy strategy) {
+        this.strategy = strategy;
+    }
+
+    /**
+     * Обработчик вызовов, которые некому назначить (например, передача в соседнюю зону).
+     * Без обработчика такие вызовы только попадают в лог ошибок
+     */
+    void setOverflowHandler(Consumer<ExternalRequest> handler) {
+        this.overflowHandler = handler;
+    }
+
+    /**
+     * Прием вызова, переданного из другой зоны (этаж уже проверен, время вызова сохраняется)
+     */
+    void handOff(ExternalRequest request) {
+        externalRequests.offer(request);
+        logger.logDispatcher("Accepted handoff: {}", request);
+    }
+
+    public boolean isIndexedSelection() {
+        return indexedSelection;
+    }
+
+    /**
+     * Выбор лифта через индекс по этажам (true) или полным проходом по парку (false).
+     * Результат один и тот же, полный проход оставлен для сравнения
+     */
+    public void setIndexedSelection(boolean indexedSelection) {
+        this.indexedSelection = indexedSelection;
+    }
+
+    /**
+     * Синхронная обработка всех накопившихся запросов (для событийного режима)
+     */
+    void dispatchPending() {
+        List<ExternalRequest> batch = new ArrayList<>();
+        while (externalRequests.drainTo(batch, maxBatchSize) > 0) {
+            assignBatch(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * Совместное назначение пакета вызовов.
+     * Снимки всех лифтов читаются один раз в начале пакета, план строится
+     * выбранной стратегией по этим снимкам и затем применяется к лифтам.
+     *
+     * @return номер лифта для каждого вызова пакета или -1, если вызов не назначен
+     */
+    int[] assignBatch(List<ExternalRequest> batch) {
+        DispatchEvents.Batch batchEvent = new DispatchEvents.Batch();
+        batchEvent.begin();
+        long start = clock.nanoTime();
+        long maxResidence = 0;
+        for (int r = 0; r < batch.size(); r++) {
+            long residence = start - batch.get(r).getCreatedNanos();
+            stats.recordQueueResidence(residence);
+            maxResidence = Math.max(maxResidence, residence);
+        }
+        int fleetSize = elevators.size();
+        long[] states = new long[fleetSize];
+        for (int i = 0; i < fleetSize; i++) {
+            states[i] = elevators.get(i).getSnapshot();
+        }
+
+        int[] plan = planAssignment(states, batch);
+        long planning = clock.nanoTime() - start;
+        stats.recordPlanning(planning);
+        for (int r = 0; r < batch.size(); r++) {
+            ExternalRequest request = batch.get(r);
+            if (plan[r] < 0) {
+                unassignedCounter.increment();
+                Consumer<ExternalRequest> handler = overflowHandler;
+                if (handler != null) {
+                    handler.accept(request);
+                } else {
+                    droppedCounter.increment();
+                    logger.logError("No available elevators for call from floor {}", request.getFloor());
+                    hallCalls.clear(request.getFloor(), request.getDirection());
+                }
+                continue;
+            }
+            Elevator elevator = elevators.get(plan[r]);
+            applyAssignment(elevator, states[plan[r]], request);
+            stats.recordLatency(clock.currentTimeMillis() - request.getTimestamp());
+            decisionCounter.increment();
+            logger.logDispatcher("Assigned to Elevator #{} for call from floor {}",
+                    elevator.getId() + 1, request.getFloor());
+        }
+
+        stats.recordBatch(batch.size(), clock.nanoTime() - start);
+        batchCounter.increment();
+        batchEvent.end();
+        if (batchEvent.shouldCommit()) {
+            batchEvent.calls = batch.size();
+            batchEvent.strategy = strategy.name();
+            batchEvent.maxQueueResidence = maxResidence;
+            batchEvent.planning = planning;
+            batchEvent.commit();
+        }
+        return plan;
+    }
+
+    /**
+     * Передача вызова лифту под его замком. Лифт держит замок только на один
+     * переход автомата (advance()), а движение и работу дверей пережидает без
+     * замка, так что ожидание замка короткое: не дольше одного перехода.
+     * Время передачи - это в основном сама запись вызова и пробуждение лифта.
+     *
+     * @param state - снимок лифта, по которому принималось решение
+     */
+    private void applyAssignment(Elevator elevator, long state, ExternalRequest request) {
+        DispatchEvents.Assign event = new DispatchEvents.Assign();
+        event.begin();
+        long start = clock.nanoTime();
+        elevator.addExternalRequest(request.getFloor(), request.getDirection());
+        stats.recordApply(clock.nanoTime() - start);
+        event.end();
+        if (event.shouldCommit()) {
+            event.elevator = elevator.getId() + 1;
+            event.floor = request.getFloor();
+            event.direction = request.getDirection().name();
+            event.carStatus = ElevatorSnapshot.status(state).name();
+            event.commit();
+        }
+    }
+
+    /**
+     * План назначения пакета без изменения лифтов.
+     * Массив states меняется: число остановок выбранных лифтов растет,
+     * чтобы следующие вызовы видели уже назначенную нагрузку.
+     * Повторный вызов с того же этажа в ту же сторону получает тот же лифт.
+     *
+     * @return индекс лифта для каждого вызова пакета или -1, если все лифты заполнены
+     */
+    int[] planAssignment(long[] states, List<ExternalRequest> batch) {
+        int[] plan = new int[batch.size()];
+        Arrays.fill(plan, -1);
+        if (strategy == DispatchStrategy.OPTIMAL) {
+            planOptimal(states, batch, plan);
+        } else {
+            planGreedy(states, batch, plan);
+        }
+        for (int r = 0; r < batch.size(); r++) {
+            int same = sameCallIndex(batch, r);
+            if (same >= 0) {
+                plan[r] = plan[same];
+            }
+        }
+        return plan;
+    }
+
+    /**
+     * Каждому вызову по порядку - самый дешевый лифт
+     */
+    private void planGreedy(long[] states, List<ExternalRequest> batch, int[] plan) {
+        if (indexedSelection) {
+            floorIndex.rebuild(states); // Нагрузка в плане меняет только остановки, этажи те же
+        }
+        for (int r = 0; r < batch.size(); r++) {
+            if (sameCallIndex(batch, r) >= 0) {
+                continue;
+            }
+            ExternalRequest request = batch.get(r);
+            int best = selectElevator(states, request.getFloor(), request.getDirection());
+            if (best >= 0) {
+                plan[r] = best;
+                addPlannedStop(states, best);
+            }
+        }
+    }
+
+    /**
+     * Минимальная суммарная стоимость по матрице вызов x лифт.
+     * Если вызовов больше, чем лифтов, решаем по раундам: в каждом раунде
+     * каждый лифт получает не больше одного вызова (матрица лифт x вызов),
+     * затем его нагрузка в снимке растет и оставшиеся вызовы идут в следующий раунд.
+     * Вызовы, которым в раунде достался только заполненный лифт, тоже переходят
+     * в следующий раунд; план заканчивается, когда раунд никого не назначил.
+     */
+    private void planOptimal(long[] states, List<ExternalRequest> batch, int[] plan) {
+        int fleetSize = states.length;
+        int[] pending = new int[batch.size()]; // Индексы вызовов пакета, еще не назначенных
+        int count = 0;
+        for (int r = 0; r < batch.size(); r++) {
+            if (sameCallIndex(batch, r) < 0) {
+                pending[count++] = r;
+            }
+        }
+
+        while (count > 0 && fleetSize > 0) {
+            if (count <= fleetSize) {
+                // Последний раунд: строки - вызовы, столбцы - лифты
+                int[][] cost = solver.matrix(count, fleetSize);
+                for (int i = 0; i < count; i++) {
+                    fillCallRow(cost[i], states, batch.get(pending[i]));
+                }
+                int[] match = solver.solve(count, fleetSize);
+                // Вызов, которому достался заполненный лифт, может взять свободный лифт
+                // в следующем раунде (с уже добавленной нагрузкой)
+                int kept = 0;
+                for (int i = 0; i < count; i++) {
+                    int car = match[i];
+                    if (cost[i][car] < AssignmentSolver.INFEASIBLE) {
+                        plan[pending[i]] = car;
+                        addPlannedStop(states, car);
+                    } else {
+                        pending[kept++] = pending[i];
+                    }
+                }
+                if (kept == count) {
+                    return; // Оставшимся вызовам не подходит ни один лифт
+                }
+                count = kept;
+                continue;
+            }
+
+            // Строки - лифты, столбцы - вызовы: каждый лифт берет один вызов
+            int[][] cost = solver.matrix(fleetSize, count);
+            for (int car = 0; car < fleetSize; car++) {
+                Elevator elevator = elevators.get(car);
+                int[] row = cost[car];
+                for (int i = 0; i < count; i++) {
+                    ExternalRequest request = batch.get(pending[i]);
+                    row[i] = clampCost(elevator.calculateCost(states[car], request.getFloor(),
+                            request.getDirection()));
+                }
+            }
+            int[] match = solver.solve(fleetSize, count);
+            boolean assigned = false;
+            for (int car = 0; car < fleetSize; car++) {
+                int i = match[car];
+                if (cost[car][i] < AssignmentSolver.INFEASIBLE) {
+                    plan[pending[i]] = car;
+                    pending[i] = -1;
+                    assigned = true;
+                }
+            }
+            if (!assigned) {
+                return; // Все лифты заполнены
+            }
+            for (int car = 0; car < fleetSize; car++) {
+                if (cost[car][match[car]] < AssignmentSolver.INFEASIBLE) {
+                    addPlannedStop(states, car);
+                }
+            }
+            // Убираем назначенные вызовы, сохраняя порядок
+            int kept = 0;
+            for (int i = 0; i < count; i++) {
+                if (pending[i] >= 0) {
+                    pending[kept++] = pending[i];
+                }
+            }
+            count = kept;
+        }
+    }
+
+    private void fillCallRow(int[] row, long[] states, ExternalRequest request) {
+        for (int car = 0; car < states.length; car++) {
+            row[car] = clampCost(elevators.get(car).calculateCost(states[car], request.getFloor(),
+                    request.getDirection()));
+        }
+    }
+
+    private static int clampCost(int cost) {
+        return Math.min(cost, AssignmentSolver.INFEASIBLE);
+    }
+
+    private static void addPlannedStop(long[] states, int car) {
+        states[car] = ElevatorSnapshot.withStops(states[car], ElevatorSnapshot.stops(states[car]) + 1);
+    }
+
+    /**
+     * Индекс более раннего вызова пакета с тем же этажом и направлением
+     *
+     * @return индекс в пакете или -1
+     */
+    private static int sameCallIndex(List<ExternalRequest> batch, int index) {
+        ExternalRequest request = batch.get(index);
+        for (int i = 0; i < index; i++) {
+            ExternalRequest other = batch.get(i);
+            if (other.getFloor() == request.getFloor() && other.getDirection() == request.getDirection()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Лифт с минимальной стоимостью по заданным снимкам
+     * (для индексного выбора индекс уже построен по этим снимкам)
+     *
+     * @return индекс лифта или -1, если все лифты заполнены
+     */
+    private int selectElevator(long[] states, int floor, Direction direction) {
+        return indexedSelection
+                ? selectIndexed(states, floor, direction)
+                : selectLinear(states, floor, direction);
+    }
+
+    /**
+     * Полный проход по парку
+     */
+    private int selectLinear(long[] states, int floor, Direction direction) {
+        int best = -1;
+        int minCost = Integer.MAX_VALUE;
+        for (int i = 0; i < elevators.size(); i++) {
+            int cost = elevators.get(i).calculateCost(states[i], floor, direction);
+            if (cost < minCost) {
+                minCost = cost;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Обход индекса по этажам от вызова наружу: floor, floor+1, floor-1, floor+2, ...
+     * Стоимость лифта не меньше расстояния до вызова в этажах (через конечный
+     * этаж путь только длиннее), поэтому как только расстояние превысило
+     * лучшую найденную стоимость, дальние лифты лучше быть не могут.
+     * Индекс построен из тех же снимков, поэтому этаж лифта в индексе - этаж
+     * его снимка, и результат совпадает с полным проходом.
+     * При равной стоимости выбирается лифт с меньшим индексом - как при полном проходе.
+     */
+    private int selectIndexed(long[] states, int floor, Direction direction) {
+        int best = -1;
+        int minCost = Integer.MAX_VALUE;
+        for (int k = 0; ; k++) {
+            int distance = (k + 1) >> 1;
+            if (distance >= maxFloor || distance > minCost) {
+                break;
+            }
+            int candidateFloor = (k & 1) == 1 ? floor + distance : floor - distance;
+            if (candidateFloor < 1 || candidateFloor > maxFloor) {
+                continue;
+            }
+            for (int p = floorIndex.begin(candidateFloor); p < floorIndex.end(candidateFloor); p++) {
+                int car = floorIndex.car(p);
+                int cost = elevators.get(car).calculateCost(states[car], floor, direction);
+                if (cost < minCost || (cost == minCost && car < best)) {
+                    minCost = cost;
+                    best = car;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Назначение запроса наилучшему лифту
+     *
+     * @return лифт, получивший вызов, или null, если все лифты заполнены
+     */
+    Elevator assignRequest(ExternalRequest request) {
+        Elevator bestElevator = selectElevator(request.getFloor(), request.getDirection());
+
+        // Назначение запроса лучшему лифту
+        if (bestElevator != null) {
+            bestElevator.addExternalRequest(request.getFloor(), request.getDirection());
+            logger.logDispatcher("Assigned to Elevator #{} for call from floor {}",
+                    bestElevator.getId() + 1, request.getFloor());
+        } else {
+            logger.logError("No available elevators for call from floor {}", request.getFloor());
+        }
+        return bestElevator;
+    }
+
+    /**
+     * Поиск лифта с минимальной стоимостью для вызова по текущим снимкам
+     * (только из потока диспетчера: рабочий индекс общий с пакетами)
+     *
+     * @return лучший лифт или null, если все лифты заполнены
+     */
+    Elevator selectElevator(int floor, Direction direction) {
+        long[] states = new long[elevators.size()];
+        for (int i = 0; i < states.length; i++) {
+            states[i] = elevators.get(i).getSnapshot();
+        }
+        if (indexedSelection) {
+            floorIndex.rebuild(states);
+        }
+        int best = selectElevator(states, floor, direction);
+        return best < 0 ? null : elevators.get(best);
+    }
+
+    /**
+     * Основной метод работы диспетчера
+     */
+    @Override
+    public void run() {
+        logger.logSystem("Dispatcher STARTED");
+
+        // Основной цикл диспетчера
+        List<ExternalRequest> batch = new ArrayList<>();
+        while (running) {
+            try {
+                // Ожидаем запрос с таймаутом 100 мс
+                ExternalRequest request = externalRequests.poll(clock.toRealNanos(100), TimeUnit.NANOSECONDS);
+
+                // Если есть запрос, забираем вместе с ним все накопившиеся и назначаем пакетом
+                if (request != null) {
+                    long window = batchWindowMillis;
+                    if (window > 0) {
+                        clock.sleep(window);
+                    }
+                    batch.add(request);
+                    externalRequests.drainTo(batch, maxBatchSize - 1);
+                    assignBatch(batch);
+                    batch.clear();
+                }
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        logger.logSystem("Dispatcher " + stats);
+        logger.logSystem("Dispatcher latency " + stats.latencySummary());
+        logger.logSystem("Dispatcher STOPPED");
+    }
+
+    /**
+     * Прямой вызов лифта (для внутренних запросов)
+     */
+    public void callElevator(int elevatorId, int targetFloor) {
+        if (elevatorId >= 0 && elevatorId < elevators.size()) {
+            elevators.get(elevatorId).addInternalRequest(targetFloor);
+        }
+    }
+}
+
+
+/**
+ * Класс Logger обеспечивает потокобезопасное логирование событий.
+ * Общий логгер процесса - getInstance(); зданиям кампуса создаются
+ * собственные именованные экземпляры со своими уровнями, часами и буфером.
+ */
+class Logger {
+    private static Logger instance; // Общий экземпляр логгера
+    private final String name; // Имя логгера (null - общий)
+    private final String prefix; // "[имя] " перед каждым сообщением (null - без имени)
+    private final DateTimeFormatter timeFormatter; // Формат времени
+    private final Lock logLock; // Замок для синхронизации вывода
+    private volatile SimulationClock clock = RealTimeClock.INSTANCE; // Часы для времени в логе
+    private volatile AsyncLogWriter asyncWriter; // Фоновый писатель (null - синхронный режим)
+    private volatile LongAdder messageCounter = new LongAdder(); // Выведенные сообщения (в реестре метрик)
+
+    // Уровни категорий и переопределения для отдельных лифтов (null - уровень категории).
+    // Массивы заменяются целиком при изменении, поэтому чтение идет без блокировок.
+    private volatile LogLevel[] categoryLevels;
+    private volatile LogLevel[] elevatorLevels = new LogLevel[0];
+    // Кэш меток "ELEVATOR #N": копирование при записи, без замка (лог пишут и виртуальные потоки)
+    private final AtomicReference<String[]> elevatorTypes = new AtomicReference<>(new String[0]);
+
+    private Logger() {
+        this(null);
+    }
+
+    /**
+     * Отдельный логгер (например, для одного здания кампуса)
+     *
+     * @param name - имя, которое печатается перед каждым сообщением
+     */
+    Logger(String name) {
+        this.name = name;
+        this.prefix = name == null ? null : "[" + name + "] ";
+        this.timeFormatter = DateTimeFormatter.ofPattern("HH:mm:ss");
+        this.logLock = new ReentrantLock();
+        this.categoryLevels = new LogLevel[LogCategory.values().length];
+        Arrays.fill(categoryLevels, LogLevel.DEBUG);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Смена часов, по которым печатается время событий
+     */
+    public void setClock(SimulationClock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Получение общего экземпляра логгера
+     */
+    public static synchronized Logger getInstance() {
+        if (instance == null) {
+            instance = new Logger();
+        }
+        return instance;
+    }
+
+    // Настройка уровней
+
+    public LogLevel getLevel(LogCategory category) {
+        return categoryLevels[category.ordinal()];
+    }
+
+    public synchronized void setLevel(LogCategory category, LogLevel level) {
+        LogLevel[] levels = categoryLevels.clone();
+        levels[category.ordinal()] = level;
+        categoryLevels = levels;
+    }
+
+    /**
+     * Уровень для одного лифта; null возвращает уровень категории ELEVATOR
+     */
+    public synchronized void setElevatorLevel(int id, LogLevel level) {
+        LogLevel[] levels = elevatorLevels;
+        if (id >= levels.length) {
+            levels = Arrays.copyOf(levels, id + 1);
+        } else {
+            levels = levels.clone();
+        }
+        levels[id] = level;
+        elevatorLevels = levels;
+    }
+
+    /**
+     * Настройка уровней строкой вида "ELEVATOR=OFF,DISPATCHER=INFO,ELEVATOR#3=DEBUG"
+     * (номера лифтов - как в логе, с единицы)
+     */
+    public void configureLevels(String spec) {
+        for (String entry : spec.split(",")) {
+            String trimmed = entry.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            int eq = trimmed.indexOf('=');
+            if (eq < 0) {
+                throw new IllegalArgumentException("Expected CATEGORY=LEVEL, got: " + trimmed);
+            }
+            String name = trimmed.substring(0, eq).trim().toUpperCase();
+            LogLevel level = LogLevel.valueOf(trimmed.substring(eq + 1).trim().toUpperCase());
+            if (name.startsWith("ELEVATOR#")) {
+                setElevatorLevel(Integer.parseInt(name.substring("ELEVATOR#".length())) - 1, level);
+            } else {
+                setLevel(LogCategory.valueOf(name), level);
+            }
+        }
+    }
+
+    public boolean isEnabled(LogCategory category, LogLevel level) {
+        return categoryLevels[category.ordinal()].includes(level);
+    }
+
+    public boolean isElevatorEnabled(int id, LogLevel level) {
+        LogLevel[] levels = elevatorLevels;
+        LogLevel elevatorLevel = id < levels.length ? levels[id] : null;
+        if (elevatorLevel == null) {
+            elevatorLevel = categoryLevels[LogCategory.ELEVATOR.ordinal()];
+        }
+        return elevatorLevel.includes(level);
+    }
+
+    /**
+     * Переход в асинхронный режим: события пишутся в кольцевой буфер,
+     * а печатает их один фоновый поток
+     * 
+     * @param capacity - размер буфера в событиях
+     * @param policy   - поведение при заполнении буфера
+     */
+    public synchronized void startAsync(int capacity, AsyncLogWriter.OverflowPolicy policy) {
+        if (asyncWriter != null) {
+            return;
+        }
+        asyncWriter = new AsyncLogWriter(capacity, policy);
+    }
+
+    /**
+     * Возврат в синхронный режим; все принятые события будут напечатаны
+     */
+    public synchronized void stopAsync() {
+        AsyncLogWriter writer = asyncWriter;
+        if (writer == null) {
+            return;
+        }
+        asyncWriter = null;
+        writer.shutdown();
+    }
+
+    public boolean isAsync() {
+        return asyncWriter != null;
+    }
+
+    /**
+     * Сколько событий отброшено из-за заполненного буфера
+     */
+    public long getDroppedCount() {
+        AsyncLogWriter writer = asyncWriter;
+        return writer == null ? 0 : writer.getDroppedCount();
+    }
+
+    /**
+     * Подключение к реестру метрик: число сообщений и потерянных при переполнении буфера
+     */
+    void setMetrics(MetricsRegistry metrics) {
+        messageCounter = metrics.counter("log.messages");
+        metrics.gauge("log.dropped", this::getDroppedCount);
+    }
+
+    /**
+     * Базовый метод логирования
+     */
+    void log(String type, String message) {
+        messageCounter.increment();
+        if (prefix != null) {
+            message = prefix + message;
+        }
+        AsyncLogWriter writer = asyncWriter;
+        if (writer != null) {
+            writer.publish(clock.currentTimeMillis(), type, message);
+            return;
+        }
+
+        logLock.lock(); // Синхронизация вывода в консоль
+        try {
+            String time = LocalTime.ofInstant(Instant.ofEpochMilli(clock.currentTimeMillis()),
+                    ZoneId.systemDefault()).format(timeFormatter);
+            System.out.printf("%s [%-10s] %s%n", time, type, message);
+        } finally {
+            logLock.unlock();
+        }
+    }
+
+    // Специализированные методы логирования для разных типов событий.
+    // Варианты с шаблоном ("{}" - место аргумента) собирают строку только если
+    // сообщение будет напечатано, поэтому выключенный лог ничего не создает.
+    // Варианты с Supplier удобны для сложных сообщений, но лямбда с захватом
+    // переменных сама создается в месте вызова.
+
+    public void logSystem(String message) {
+        if (isEnabled(LogCategory.SYSTEM, LogLevel.INFO)) {
+            log("SYSTEM", message);
+        }
+    }
+
+    public void logDispatcher(String message) {
+        if (isEnabled(LogCategory.DISPATCHER, LogLevel.INFO)) {
+            log("DISPATCHER", message);
+        }
+    }
+
+    public void logDispatcher(String pattern, Object arg) {
+        if (isEnabled(LogCategory.DISPATCHER, LogLevel.INFO)) {
+            log("DISPATCHER", format(pattern, arg));
+        }
+    }
+
+    public void logDispatcher(String pattern, int arg1, int arg2) {
+        if (isEnabled(LogCategory.DISPATCHER, LogLevel.INFO)) {
+            log("DISPATCHER", format(pattern, arg1, arg2));
+        }
+    }
+
+    public void logElevator(int id, String message) {
+        logElevator(id, LogLevel.INFO, message);
+    }
+
+    public void logElevator(int id, LogLevel level, String message) {
+        if (isElevatorEnabled(id, level)) {
+            log(elevatorType(id), message);
+        }
+    }
+
+    public void logElevator(int id, LogLevel level, String pattern, int arg) {
+        if (isElevatorEnabled(id, level)) {
+            log(elevatorType(id), format(pattern, arg));
+        }
+    }
+
+    public void logElevator(int id, LogLevel level, String pattern, int arg1, int arg2) {
+        if (isElevatorEnabled(id, level)) {
+            log(elevatorType(id), format(pattern, arg1, arg2));
+        }
+    }
+
+    public void logElevator(int id, LogLevel level, String pattern, int arg1, Object arg2) {
+        if (isElevatorEnabled(id, level)) {
+            log(elevatorType(id), format(pattern, arg1, arg2));
+        }
+    }
+
+    public void logElevator(int id, LogLevel level, Supplier<String> message) {
+        if (isElevatorEnabled(id, level)) {
+            log(elevatorType(id), message.get());
+        }
+    }
+
+    public void logError(String message) {
+        if (isEnabled(LogCategory.ERROR, LogLevel.ERROR)) {
+            log("ERROR", message);
+        }
+    }
+
+    public void logError(String pattern, int arg) {
+        if (isEnabled(LogCategory.ERROR, LogLevel.ERROR)) {
+            log("ERROR", format(pattern, arg));
+        }
+    }
+
+    public void logInfo(String message) {
+        if (isEnabled(LogCategory.INFO, LogLevel.INFO)) {
+            log("INFO", message);
+        }
+    }
+
+    public void logInfo(Supplier<String> message) {
+        if (isEnabled(LogCategory.INFO, LogLevel.INFO)) {
+            log("INFO", message.get());
+        }
+    }
+
+    /**
+     * Метка "ELEVATOR #N" из кэша, чтобы не собирать ее на каждом сообщении
+     */
+    private String elevatorType(int id) {
+        String[] types = elevatorTypes.get();
+        if (id < types.length && types[id] != null) {
+            return types[id];
+        }
+        String type = "ELEVATOR #" + (id + 1);
+        while (true) {
+            String[] updated = id < types.length
+                    ? types.clone()
+                    : Arrays.copyOf(types, Math.max(id + 1, types.length * 2));
+            updated[id] = type;
+            if (elevatorTypes.compareAndSet(types, updated)) {
+                return type;
+            }
+            types = elevatorTypes.get();
+            if (id < types.length && types[id] != null) {
+                return types[id];
+            }
+        }
+    }
+
+    // Подстановка аргументов в шаблон
+
+    /**
+     * Дописывает шаблон до следующего "{}"
+     * 
+     * @return позиция после "{}" или -1, если мест для аргументов больше нет
+     */
+    private static int appendLiteral(StringBuilder out, String pattern, int from) {
+        if (from < 0) {
+            return -1;
+        }
+        int at = pattern.indexOf("{}", from);
+        if (at < 0) {
+            out.append(pattern, from, pattern.length());
+            return -1;
+        }
+        out.append(pattern, from, at);
+        return at + 2;
+    }
+
+    private static String finish(StringBuilder out, String pattern, int from) {
+        if (from >= 0) {
+            out.append(pattern, from, pattern.length());
+        }
+        return out.toString();
+    }
+
+    static String format(String pattern, int arg) {
+        StringBuilder out = new StringBuilder(pattern.length() + 16);
+        int pos = appendLiteral(out, pattern, 0);
+        if (pos >= 0) {
+            out.append(arg);
+        }
+        return finish(out, pattern, pos);
+    }
+
+    static String format(String pattern, Object arg) {
+        StringBuilder out = new StringBuilder(pattern.length() + 32);
+        int pos = appendLiteral(out, pattern, 0);
+        if (pos >= 0) {
+            out.append(arg);
+        }
+        return finish(out, pattern, pos);
+    }
+
+    static String format(String pattern, int arg1, int arg2) {
+        StringBuilder out = new StringBuilder(pattern.length() + 32);
+        int pos = appendLiteral(out, pattern, 0);
+        if (pos >= 0) {
+            out.append(arg1);
+        }
+        pos = appendLiteral(out, pattern, pos);
+        if (pos >= 0) {
+            out.append(arg2);
+        }
+        return finish(out, pattern, pos);
+    }
+
+    static String format(String pattern, int arg1, Object arg2) {
+        StringBuilder out = new StringBuilder(pattern.length() + 32);
+        int pos = appendLiteral(out, pattern, 0);
+        if (pos >= 0) {
+            out.append(arg1);
+        }
+        pos = appendLiteral(out, pattern, pos);
+        if (pos >= 0) {
+            out.append(arg2);
+        }
+        return finish(out, pattern, pos);
+    }
+}
+
+/**
+ * Основной класс системы управления лифтами.
+ * Координирует работу всех компонентов системы.
+ */
+public class ElevatorSystemSimulation {
+    private final List<Elevator> elevators; // Все лифты в системе
+    private final ZonedDispatcher dispatcher; // Диспетчеры зон (одна зона - один диспетчер)
+    private final ThreadMode threadMode; // Обычные или виртуальные потоки
+    private final ThreadFactory elevatorThreadFactory; // Потоки для циклов лифтов
+    private ExecutorService elevatorExecutor; // Исполнитель циклов лифтов (создается при запуске)
+    private ElevatorScheduler elevatorScheduler; // Общий планировщик шагов (режим SCHEDULED)
+    private ScheduledExecutorService trafficExecutor; // Поток генератора пассажиров (вне кампуса)
+    private volatile CallTrace.Reader trace; // Воспроизводимая запись вызовов
+    private final ScheduledExecutorService sharedPool; // Пул кампуса (null - свои потоки)
+    private final EngineStats engineStats = new EngineStats(); // Пробуждения и опоздания лифтов
+    private final int maxFloor; // Максимальный этаж
+    private final RandomStreams random; // Потоки случайных чисел от одного зерна
+    private final MetricsRegistry metrics = new MetricsRegistry(); // Счетчики здания (JMX и снимки)
+    private ScheduledExecutorService metricsExecutor; // Поток периодических снимков метрик (вне кампуса)
+    private ScheduledFuture<?> metricsReport; // Периодические снимки (null - выключены)
+    private final Logger logger; // Логгер
+    private final SimulationClock clock; // Источник времени
+    private volatile boolean running = false; // Флаг работы системы
+
+    private static final int SCHEDULER_THREADS = 2; // Размер пула в режиме SCHEDULED
+
+    /**
+     * Конструктор системы
+     * 
+     * @param numElevators - количество лифтов
+     * @param maxFloor     - количество этажей
+     */
+    public ElevatorSystemSimulation(int numElevators, int maxFloor) {
+        this(numElevators, maxFloor, RealTimeClock.INSTANCE);
+    }
+
+    /**
+     * Конструктор системы с заданным источником времени
+     * 
+     * @param numElevators - количество лифтов
+     * @param maxFloor     - количество этажей
+     * @param clock        - часы (реальное или ускоренное время)
+     */
+    public ElevatorSystemSimulation(int numElevators, int maxFloor, SimulationClock clock) {
+        this(numElevators, maxFloor, clock, ThreadMode.PLATFORM);
+    }
+
+    /**
+     * Конструктор системы с выбором потоков исполнения
+     * 
+     * @param numElevators - количество лифтов
+     * @param maxFloor     - количество этажей
+     * @param clock        - часы (реальное или ускоренное время)
+     * @param threadMode   - обычные потоки или виртуальные (для больших парков лифтов)
+     */
+    public ElevatorSystemSimulation(int numElevators, int maxFloor, SimulationClock clock,
+            ThreadMode threadMode) {
+        this(numElevators, maxFloor, clock, threadMode, 1);
+    }
+
+    /**
+     * Конструктор системы с делением здания на зоны
+     * 
+     * @param numElevators - количество лифтов
+     * @param maxFloor     - количество этажей
+     * @param clock        - часы (реальное или ускоренное время)
+     * @param threadMode   - обычные потоки или виртуальные (для больших парков лифтов)
+     * @param zones        - число зон по высоте, у каждой своя группа лифтов и свой диспетчер
+     */
+    public ElevatorSystemSimulation(int numElevators, int maxFloor, SimulationClock clock,
+            ThreadMode threadMode, int zones) {
+        this(numElevators, maxFloor, clock, threadMode, zones, RandomStreams.randomSeed());
+    }
+
+    /**
+     * Конструктор системы с заданным зерном случайных чисел
+     * 
+     * @param numElevators - количество лифтов
+     * @param maxFloor     - количество этажей
+     * @param clock        - часы (реальное или ускоренное время)
+     * @param threadMode   - обычные потоки или виртуальные (для больших парков лифтов)
+     * @param zones        - число зон по высоте
+     * @param seed         - главное зерно запросов и выхода пассажиров
+     */
+    public ElevatorSystemSimulation(int numElevators, int maxFloor, SimulationClock clock,
+            ThreadMode threadMode, int zones, long seed) {
+        this(numElevators, maxFloor, clock, threadMode, zones, null, seed);
+    }
+
+    /**
+     * конструктор с зонами по статистике вызовов: границы делят вызовы поровну,
+     * лифты раздаются пропорционально (ZonedDispatcher.fromTraffic)
+     * 
+     * @param numElevators  - количество лифтов
+     * @param maxFloor      - количество этажей
+     * @param clock         - часы (реальное или ускоренное время)
+     * @param threadMode    - обычные потоки или виртуальные (для больших парков лифтов)
+     * @param zones         - число зон по высоте
+     * @param callsPerFloor - вызовы с каждого этажа (индексы с единицы) или null - равные зоны
+     * @param seed          - главное зерно запросов и выхода пассажиров
+     */
+    public ElevatorSystemSimulation(int numElevators, int maxFloor, SimulationClock clock,
+            ThreadMode threadMode, int zones, long[] callsPerFloor, long seed) {
+        this(numElevators, maxFloor, clock, threadMode, zones, callsPerFloor, null, Logger.getInstance(), seed);
+    }
+
+    /**
+     * Здание кампуса: без своих потоков, все шаги лифтов и генератор запросов
+     * выполняются в общем пуле, вызовы назначаются синхронно в потоке вызова
+     * 
+     * @param numElevators - количество лифтов
+     * @param maxFloor     - количество этажей
+     * @param clock        - часы (реальное или ускоренное время)
+     * @param zones        - число зон по высоте
+     * @param sharedPool   - общий пул зданий (останавливает владелец)
+     * @param logger       - свой логгер здания
+     * @param seed         - главное зерно здания
+     */
+    ElevatorSystemSimulation(int numElevators, int maxFloor, SimulationClock clock, int zones,
+            ScheduledExecutorService sharedPool, Logger logger, long seed) {
+        this(numElevators, maxFloor, clock, ThreadMode.SCHEDULED, zones, null, sharedPool, logger, seed);
+    }
+
+    private ElevatorSystemSimulation(int numElevators, int maxFloor, SimulationClock clock,
+            ThreadMode threadMode, int zones, long[] callsPerFloor, ScheduledExecutorService sharedPool,
+            Logger logger, long seed) {
+        this.maxFloor = maxFloor;
+        this.clock = clock;
+        this.threadMode = threadMode.effective();
+        this.elevatorThreadFactory = this.threadMode.newThreadFactory("Elevator");
+        this.sharedPool = sharedPool;
+        this.elevators = new ArrayList<>();
+        this.random = new RandomStreams(seed);
+        this.logger = logger;
+
+        // Создание лифтов (потоки выхода пассажиров - в порядке номеров)
+        for (int i = 0; i < numElevators; i++) {
+            Elevator elevator = new Elevator(i, maxFloor, clock, logger, random.nextExitStream());
+            elevator.setEngineStats(engineStats);
+            elevators.add(elevator);
+        }
+
+        // Создание диспетчеров: здание делится на зоны по высоте (поровну или по статистике вызовов)
+        dispatcher = callsPerFloor == null
+                ? ZonedDispatcher.evenZones(elevators, maxFloor, clock, logger, zones)
+                : ZonedDispatcher.fromTraffic(elevators, maxFloor, clock, logger, callsPerFloor, zones);
+        if (sharedPool != null) {
+            // Без потока диспетчера повторный вызов назначается задачей в общем пуле
+            dispatcher.getHallCalls().getPassengers().setReissueHandler((floor, direction) -> {
+                dispatcher.addExternalRequest(floor, direction);
+                try {
+                    sharedPool.execute(dispatcher::dispatchPending);
+                } catch (RejectedExecutionException e) {
+                    // Пул кампуса уже остановлен
+                }
+            });
+        }
+
+        // Метрики: счетчики на горячих путях и показатели, которые уже считаются
+        for (Elevator elevator : elevators) {
+            elevator.setMetrics(metrics);
+        }
+        dispatcher.setMetrics(metrics);
+        logger.setMetrics(metrics);
+        registerGauges(metrics, dispatcher.getHallCalls(), elevators);
+    }
+
+    /**
+     * Показатели здания, которые читаются при снимке метрик
+     */
+    static void registerGauges(MetricsRegistry metrics, HallCallTable hallCalls, List<Elevator> elevators) {
+        metrics.gauge("calls.served", hallCalls::getServedCount);
+        metrics.gauge("passengers.arrived", hallCalls.getPassengers()::getArrivedCount);
+        metrics.gauge("passengers.delivered", hallCalls.getPassengers()::getDeliveredCount);
+        metrics.gauge("elevator.passengers", () -> {
+            long total = 0;
+            for (Elevator elevator : elevators) {
+                total += elevator.getPassengerCount();
+            }
+            return total;
+        });
+    }
+
+    public int getMaxFloor() {
+        return maxFloor;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public ThreadMode getThreadMode() {
+        return threadMode;
+    }
+
+    public List<Elevator> getElevators() {
+        return Collections.unmodifiableList(elevators);
+    }
+
+    public EngineStats getEngineStats() {
+        return engineStats;
+    }
+
+    public MetricsRegistry getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Ожидание на этажах по зданию: сводка гистограмм лифтов
+     */
+    public LatencyHistogram getWaitTimes() {
+        LatencyHistogram total = new LatencyHistogram();
+        for (Elevator elevator : elevators) {
+            total.add(elevator.getWaitTimes());
+        }
+        return total;
+    }
+
+    /**
+     * Поездки по зданию: сводка гистограмм лифтов
+     */
+    public LatencyHistogram getJourneyTimes() {
+        LatencyHistogram total = new LatencyHistogram();
+        for (Elevator elevator : elevators) {
+            total.add(elevator.getJourneyTimes());
+        }
+        return total;
+    }
+
+    public Logger getLogger() {
+        return logger;
+    }
+
+    ZonedDispatcher getDispatcher() {
+        return dispatcher;
+    }
+
+    /**
+     * Способ распределения вызовов между лифтами (можно менять на ходу)
+     */
+    public void setDispatchStrategy(DispatchStrategy strategy) {
+        dispatcher.setStrategy(strategy);
+    }
+
+    /**
+     * Запуск всей системы
+     */
+    public void start() {
+        if (running)
+            return;
+
+        running = true;
+        logger.logSystem("==========================================");
+        logger.logSystem("ELEVATOR SYSTEM STARTING");
+        logger.logSystem("Elevators: " + elevators.size());
+        logger.logSystem("Floors: " + maxFloor);
+        logger.logSystem("Threads: " + threadMode);
+        logger.logSystem("Dispatch zones: " + dispatcher.getZoneCount() + " (" + dispatcher.describeZones() + ")");
+        logger.logSystem("Seed: " + random.getSeed());
+        logger.logSystem("==========================================");
+
+        String name = logger.getName() == null ? "building" : logger.getName();
+        try {
+            metrics.registerMBean(name);
+        } catch (JMException e) {
+            logger.logError("Metrics are not exported to JMX: " + e.getMessage());
+        }
+
+        if (sharedPool != null) {
+            // Здание кампуса: шаги лифтов в пуле кампуса, вызовы назначаются синхронно
+            elevatorScheduler = new ElevatorScheduler(elevators, clock, sharedPool, engineStats, logger);
+            elevatorScheduler.start();
+            logger.logSystem("System started and ready");
+            return;
+        } else if (threadMode == ThreadMode.SCHEDULED) {
+            // Шаги всех лифтов планируются в общем пуле по сроку
+            elevatorScheduler = new ElevatorScheduler(elevators, clock, SCHEDULER_THREADS, engineStats, logger);
+            elevatorScheduler.start();
+        } else {
+            // Запуск циклов лифтов: по потоку (обычному или виртуальному) на лифт
+            elevatorExecutor = Executors.newCachedThreadPool(elevatorThreadFactory);
+            for (Elevator elevator : elevators) {
+                elevatorExecutor.execute(elevator);
+            }
+        }
+
+        // Запуск потоков диспетчеров зон
+        dispatcher.start(threadMode.newThreadFactory("Dispatcher"));
+
+        logger.logSystem("System started and ready");
+    }
+
+    /**
+     * Корректная остановка системы
+     */
+    public void stop() {
+        if (!running)
+            return;
+
+        running = false;
+        logger.logSystem("==========================================");
+        logger.logSystem("ELEVATOR SYSTEM STOPPING");
+        logger.logSystem("==========================================");
+
+        // Остановка диспетчеров
+        dispatcher.stop();
+
+        // Остановка всех лифтов
+        for (Elevator elevator : elevators) {
+            elevator.stop();
+        }
+
+        if (elevatorScheduler != null) {
+            elevatorScheduler.shutdown();
+        }
+        if (trafficExecutor != null) {
+            trafficExecutor.shutdownNow();
+        }
+        closeTrace();
+        if (metricsReport != null) {
+            metricsReport.cancel(false);
+        }
+        if (metricsExecutor != null) {
+            metricsExecutor.shutdownNow();
+        }
+        metrics.unregisterMBean();
+
+        // Ожидание завершения всех потоков
+        try {
+            dispatcher.join(2000);
+            if (elevatorExecutor != null) {
+                elevatorExecutor.shutdown();
+            }
+            if (elevatorExecutor != null && !elevatorExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
+                logger.logError("Some elevator loops did not stop in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        logger.logSystem("Elevator engine " + engineStats);
+        logger.logSystem("Metrics " + metrics.snapshot());
+        logger.logSystem("Hall wait " + getWaitTimes());
+        logger.logSystem("Journey " + getJourneyTimes());
+        for (Elevator elevator : elevators) {
+            logger.logInfo("Elevator #" + (elevator.getId() + 1) + " wait " + elevator.getWaitTimes()
+                    + ", journey " + elevator.getJourneyTimes());
+        }
+        WaitingPassengers passengers = dispatcher.getHallCalls().getPassengers();
+        if (passengers.getArrivedCount() > 0) {
+            logger.logSystem("Traffic " + passengers);
+        }
+        logger.logSystem("System stopped correctly");
+    }
+
+    /**
+     * Вызов лифта с этажа
+     */
+    public void callElevator(int floor, Direction direction) {
+        if (!running) {
+            logger.logError("System is not running");
+            return;
+        }
+
+        if (floor < 1 || floor > maxFloor) {
+            logger.logError("Invalid floor: " + floor + " (must be 1-" + maxFloor + ")");
+            return;
+        }
+
+        dispatcher.addExternalRequest(floor, direction);
+        if (sharedPool != null) {
+            dispatcher.dispatchPending();
+        }
+    }
+
+    /**
+     * Выбор этажа в лифте
+     */
+    public void selectFloor(int elevatorId, int targetFloor) {
+        if (!running) {
+            logger.logError("System is not running");
+            return;
+        }
+
+        if (elevatorId < 0 || elevatorId >= elevators.size()) {
+            logger.logError("Invalid elevator ID: " + elevatorId +
+                    " (must be 0-" + (elevators.size() - 1) + ")");
+            return;
+        }
+
+        dispatcher.callElevator(elevatorId, targetFloor);
+    }
+
+    /**
+     * Периодическая печать прироста метрик за период (время симуляции);
+     * в кампусе - задачей общего пула, иначе в одном своем потоке
+     */
+    public void startMetricsReport(long periodMillis) {
+        if (periodMillis <= 0) {
+            throw new IllegalArgumentException("Report period must be positive: " + periodMillis);
+        }
+        ScheduledExecutorService executor = sharedPool;
+        if (executor == null) {
+            metricsExecutor = Executors.newSingleThreadScheduledExecutor(
+                    threadMode.newThreadFactory("Metrics-Reporter"));
+            executor = metricsExecutor;
+        }
+        metricsReport = metrics.scheduleSnapshots(executor, clock.toRealNanos(periodMillis),
+                delta -> logger.logInfo("Metrics +" + delta));
+    }
+
+    /**
+     * Генерация случайных запросов для тестирования
+     */
+    public void generateRandomRequests(int numRequests) {
+        logger.logInfo("Generating " + numRequests + " random requests...");
+
+        if (sharedPool != null) {
+            // В кампусе - цепочка отложенных задач в общем пуле вместо потока
+            scheduleRandomRequest(numRequests);
+            return;
+        }
+
+        threadMode.newThreadFactory("Request-Generator").newThread(() -> {
+            for (int i = 0; i < numRequests; i++) {
+                int delay = random.arrivals().nextInt(3000) + 500;
+                try {
+                    clock.sleep(delay);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+
+                if (!running)
+                    break;
+
+                randomRequest();
+            }
+        }).start();
+    }
+
+    /**
+     * Поток пассажиров по профилю. Генератор просыпается к следующему приходу,
+     * выпускает все наступившие приходы и планирует себя снова - без сна на
+     * каждого пассажира (в кампусе - в общем пуле, иначе в одном своем потоке)
+     *
+     * @param startMillis - момент профиля, соответствующий текущему времени (например, 7:00)
+     */
+    public void generateTraffic(TrafficProfile profile, long startMillis) {
+        if (profile.getMaxFloor() != maxFloor) {
+            throw new IllegalArgumentException("Profile is for " + profile.getMaxFloor() + " floors, building has "
+                    + maxFloor);
+        }
+        logger.logInfo("Traffic profile " + profile.getName() + " from " + startMillis / 60000 + " min");
+        TrafficGenerator traffic = new TrafficGenerator(profile, startMillis, random.arrivals(),
+                random.destinations());
+        long profileZero = clock.currentTimeMillis() - startMillis;
+        ScheduledExecutorService executor = sharedPool;
+        if (executor == null) {
+            trafficExecutor = Executors.newSingleThreadScheduledExecutor(
+                    threadMode.newThreadFactory("Traffic-Generator"));
+            executor = trafficExecutor;
+        }
+        if (traffic.next()) {
+            final ScheduledExecutorService target = executor;
+            executor.execute(() -> emitTraffic(traffic, profileZero, target));
+        }
+    }
+
+    private void emitTraffic(TrafficGenerator traffic, long profileZero, ScheduledExecutorService executor) {
+        long now = clock.currentTimeMillis() - profileZero;
+        boolean more = true;
+        while (running && more && traffic.time() <= now) {
+            passengerArrives(traffic.origin(), traffic.destination());
+            more = traffic.next();
+        }
+        if (!running || !more) {
+            return;
+        }
+        try {
+            executor.schedule(() -> emitTraffic(traffic, profileZero, executor),
+                    clock.toRealNanos(traffic.time() - now), TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            // Система остановлена
+        }
+    }
+
+    /**
+     * Воспроизведение записанных вызовов с текущего момента по тем же правилам,
+     * что и поток пассажиров: проснуться к следующему вызову, выпустить все
+     * наступившие, запланировать себя снова. Запись закрывается по окончании или в stop().
+     */
+    public void replayTrace(CallTrace.Reader trace) {
+        logger.logInfo("Call trace: " + trace.getRecordCount() + " calls, " + trace.getMaxFloor() + " floors, "
+                + trace.getElevatorCount() + " elevators");
+        if (trace.getMaxFloor() > maxFloor || trace.getElevatorCount() > elevators.size()) {
+            logger.logError("Trace is for a larger building, extra calls will be rejected");
+        }
+        this.trace = trace;
+        long traceZero = clock.currentTimeMillis();
+        ScheduledExecutorService executor = sharedPool;
+        if (executor == null) {
+            trafficExecutor = Executors.newSingleThreadScheduledExecutor(
+                    threadMode.newThreadFactory("Trace-Replayer"));
+            executor = trafficExecutor;
+        }
+        if (trace.next()) {
+            final ScheduledExecutorService target = executor;
+            executor.execute(() -> emitTrace(trace, traceZero, target));
+        } else {
+            closeTrace();
+        }
+    }
+
+    private void emitTrace(CallTrace.Reader trace, long traceZero, ScheduledExecutorService executor) {
+        long now = clock.currentTimeMillis() - traceZero;
+        boolean more = true;
+        try {
+            while (running && more && trace.time() <= now) {
+                if (trace.isHallCall()) {
+                    callElevator(trace.floor(), trace.direction());
+                } else {
+                    selectFloor(trace.elevator(), trace.floor());
+                }
+                more = trace.next();
+            }
+        } catch (UncheckedIOException | IllegalStateException e) {
+            if (running) {
+                logger.logError("Call trace aborted: " + e.getMessage());
+                closeTrace();
+            }
+            return;
+        }
+        if (!running || !more) {
+            if (more) {
+                return; // Запись закроет stop()
+            }
+            logger.logInfo("Call trace finished");
+            closeTrace();
+            return;
+        }
+        try {
+            executor.schedule(() -> emitTrace(trace, traceZero, executor),
+                    clock.toRealNanos(trace.time() - now), TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            // Система остановлена
+        }
+    }
+
+    private void closeTrace() {
+        CallTrace.Reader current = trace;
+        trace = null;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (IOException e) {
+                logger.logError("Failed to close call trace: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Пассажир пришел на этаж и вызывает лифт в сторону этажа назначения
+     */
+    private void passengerArrives(int origin, int destination) {
+        dispatcher.getHallCalls().getPassengers().arrive(origin, destination, clock.currentTimeMillis());
+        callElevator(origin, WaitingPassengers.directionOf(origin, destination));
+    }
+
+    private void scheduleRandomRequest(int remaining) {
+        if (remaining <= 0 || !running) {
+            return;
+        }
+        int delay = random.arrivals().nextInt(3000) + 500;
+        try {
+            sharedPool.schedule(() -> {
+                if (running) {
+                    randomRequest();
+                    scheduleRandomRequest(remaining - 1);
+                }
+            }, clock.toRealNanos(delay), TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            // Пул кампуса уже остановлен
+        }
+    }
+
+    /**
+     * Один случайный запрос: 70% внешних, 30% внутренних
+     */
+    private void randomRequest() {
+        SplittableRandom destinations = random.destinations();
+        if (destinations.nextDouble() < 0.7) {
+            int floor = destinations.nextInt(maxFloor) + 1;
+            Direction direction = destinations.nextBoolean() ? Direction.UP : Direction.DOWN;
+            callElevator(floor, direction);
+        } else {
+            int elevatorId = destinations.nextInt(elevators.size());
+            int targetFloor = destinations.nextInt(maxFloor) + 1;
+            selectFloor(elevatorId, targetFloor);
+        }
+    }
+
+    /**
+     * Отображение текущего статуса системы
+     */
+    public void displayStatus() {
+        logger.logSystem("==========================================");
+        logger.logSystem("SYSTEM STATUS");
+        logger.logSystem("==========================================");
+
+        for (Elevator elevator : elevators) {
+            // Один снимок на лифт: этаж, статус и направление всегда согласованы
+            long state = elevator.getSnapshot();
+
+            logger.logInfo(String.format("Elevator #%d: Floor %2d | %s | %s | Passengers: %d/%d",
+                    elevator.getId() + 1,
+                    ElevatorSnapshot.floor(state),
+                    ElevatorSnapshot.status(state).getDescription(),
+                    ElevatorSnapshot.direction(state).getDescription(),
+                    ElevatorSnapshot.passengers(state),
+                    elevator.getMaxCapacity()));
+        }
+        logger.logSystem("==========================================");
+    }
+
+    /**
+     * Точка входа в программу
+     */
+    public static void main(String[] args) {
+        // Конфигурация системы
+        int numElevators = 4; // Количество лифтов
+        int numFloors = 10; // Количество этажей
+        int simulationTime = 45; // Время симуляции в секундах
+
+        Logger logger = Logger.getInstance();
+
+        // Асинхронный лог (флаг --async-log в любом месте командной строки)
+        if (Arrays.asList(args).contains("--async-log")) {
+            logger.startAsync(64 * 1024, AsyncLogWriter.OverflowPolicy.BLOCK);
+        }
+
+        // Уровни лога: --log-levels=ELEVATOR=OFF,DISPATCHER=INFO
+        for (String arg : args) {
+            if (arg.startsWith("--log-levels=")) {
+                logger.configureLevels(arg.substring("--log-levels=".length()));
+            }
+        }
+
+        // Стратегия распределения вызовов: --dispatch=greedy или --dispatch=optimal
+        DispatchStrategy strategy = DispatchStrategy.GREEDY;
+        for (String arg : args) {
+            if (arg.startsWith("--dispatch=")) {
+                strategy = DispatchStrategy.valueOf(arg.substring("--dispatch=".length()).toUpperCase());
+            }
+        }
+
+        // Поток пассажиров по профилю вместо случайных запросов:
+        // --traffic=office|up-peak|down-peak|lunch|interfloor [--rate=пассажиров в час пик]
+        String traffic = null;
+        double rate = 300;
+        for (String arg : args) {
+            if (arg.startsWith("--traffic=")) {
+                traffic = arg.substring("--traffic=".length());
+            } else if (arg.startsWith("--rate=")) {
+                rate = Double.parseDouble(arg.substring("--rate=".length()));
+            }
+        }
+
+        // Запись реальных вызовов: --convert-trace calls.csv calls.trace переводит журнал из CSV,
+        // --trace=calls.trace воспроизводит запись вместо случайных запросов
+        for (int i = 0; i + 2 < args.length; i++) {
+            if (args[i].equals("--convert-trace")) {
+                try {
+                    long calls = CallTrace.convertCsv(Paths.get(args[i + 1]), Paths.get(args[i + 2]));
+                    logger.logSystem("Converted " + calls + " calls to " + args[i + 2]);
+                } catch (IOException e) {
+                    logger.logError("Trace conversion failed: " + e.getMessage());
+                }
+                logger.stopAsync();
+                return;
+            }
+        }
+        CallTrace.Reader trace = null;
+        for (String arg : args) {
+            if (arg.startsWith("--trace=")) {
+                try {
+                    trace = new CallTrace.Reader(Paths.get(arg.substring("--trace=".length())));
+                } catch (IOException e) {
+                    logger.logError("Cannot open call trace: " + e.getMessage());
+                    logger.stopAsync();
+                    return;
+                }
+            }
+        }
+
+        // Главное зерно случайных чисел: --seed 42 (без флага - случайное, печатается при запуске)
+        long seed = RandomStreams.randomSeed();
+        for (int i = 0; i + 1 < args.length; i++) {
+            if (args[i].equals("--seed")) {
+                seed = Long.parseLong(args[i + 1]);
+            }
+        }
+
+        // HTTP-статус на localhost для потоковых режимов: --http=9100 (/metrics, /status)
+        int httpPort = -1;
+        for (String arg : args) {
+            if (arg.startsWith("--http=")) {
+                httpPort = Integer.parseInt(arg.substring("--http=".length()));
+            }
+        }
+
+        // Событийный режим: java ElevatorSystemSimulation --discrete [число случайных запросов]
+        if (args.length > 0 && args[0].equals("--discrete")) {
+            int numRandomRequests = args.length > 1 && !args[1].startsWith("--") ? Integer.parseInt(args[1]) : 8;
+            TrafficProfile profile = traffic == null ? null
+                    : TrafficProfile.named(traffic, numFloors, rate, 24L * 60 * 60 * 1000);
+            runDiscreteEventDemo(numElevators, numFloors, numRandomRequests, strategy, seed, profile, trace);
+            logger.stopAsync();
+            return;
+        }
+
+        // Кампус из нескольких зданий на общем пуле: --campus 8
+        for (int i = 0; i + 1 < args.length; i++) {
+            if (args[i].equals("--campus")) {
+                runCampusDemo(Integer.parseInt(args[i + 1]), numElevators, numFloors, strategy, seed, httpPort);
+                logger.stopAsync();
+                return;
+            }
+        }
+
+        // Повторы сценария в событийном режиме: --replications 20 [--seed 42] [--traffic=office --rate=N]
+        for (int i = 0; i + 1 < args.length; i++) {
+            if (args[i].equals("--replications")) {
+                TrafficProfile profile = traffic == null ? null
+                        : TrafficProfile.named(traffic, numFloors, rate, 24L * 60 * 60 * 1000);
+                runReplications(Integer.parseInt(args[i + 1]), seed, numElevators, numFloors, strategy, profile);
+                logger.stopAsync();
+                return;
+            }
+        }
+
+        // Виртуальные потоки для лифтов или общий планировщик
+        // (флаги --virtual-threads / --scheduled в любом месте командной строки)
+        ThreadMode threadMode = ThreadMode.PLATFORM;
+        if (Arrays.asList(args).contains("--virtual-threads")) {
+            threadMode = ThreadMode.VIRTUAL;
+        } else if (Arrays.asList(args).contains("--scheduled")) {
+            threadMode = ThreadMode.SCHEDULED;
+        }
+
+        // Ускоренный режим: java ElevatorSystemSimulation --speed 100
+        SimulationClock clock = RealTimeClock.INSTANCE;
+        if (args.length > 1 && args[0].equals("--speed")) {
+            clock = new ScaledClock(Double.parseDouble(args[1]));
+            logger.setClock(clock);
+        }
+
+        logger.logSystem("==========================================");
+        logger.logSystem("ELEVATOR SYSTEM SIMULATION");
+        logger.logSystem("==========================================");
+        logger.logInfo("Configuration: " + numElevators + " elevators, " + numFloors + " floors");
+        logger.logInfo("Simulation time: " + simulationTime + " seconds");
+
+        // Создание системы
+        // Зоны диспетчеризации: --zones 2; с --zones-by-traffic границы и лифты зон
+        // берутся из ожидаемых вызовов профиля --traffic, иначе зоны равные
+        int zones = 1;
+        for (int i = 0; i + 1 < args.length; i++) {
+            if (args[i].equals("--zones")) {
+                zones = Integer.parseInt(args[i + 1]);
+            }
+        }
+        long[] callsPerFloor = null;
+        if (Arrays.asList(args).contains("--zones-by-traffic")) {
+            if (traffic == null) {
+                logger.logError("--zones-by-traffic needs --traffic, using even zones");
+            } else {
+                callsPerFloor = TrafficProfile.named(traffic, numFloors, rate, 24L * 60 * 60 * 1000)
+                        .expectedOriginsPerFloor();
+            }
+        }
+
+        ElevatorSystemSimulation system = new ElevatorSystemSimulation(numElevators, numFloors, clock, threadMode,
+                zones, callsPerFloor, seed);
+        system.setDispatchStrategy(strategy);
+
+        // Запуск системы
+        system.start();
+        StatusServer statusServer = startStatusServer(Collections.singletonList(system), httpPort);
+
+        // Пауза для инициализации
+        try {
+            clock.sleep(2000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Демонстрационные запросы
+        logger.logInfo("======== DEMONSTRATION REQUESTS ========");
+
+        logger.logInfo("1. Call elevator to floor 5 going UP");
+        system.callElevator(5, Direction.UP);
+
+        try {
+            clock.sleep(1500);
+        } catch (InterruptedException e) {
+        }
+
+        logger.logInfo("2. In elevator #1 select floor 8");
+        system.selectFloor(0, 8);
+
+        try {
+            clock.sleep(1500);
+        } catch (InterruptedException e) {
+        }
+
+        logger.logInfo("3. Call elevator to floor 9 going DOWN");
+        system.callElevator(9, Direction.DOWN);
+
+        try {
+            clock.sleep(1500);
+        } catch (InterruptedException e) {
+        }
+
+        logger.logInfo("4. In elevator #2 select floor 1");
+        system.selectFloor(1, 1);
+
+        try {
+            clock.sleep(1500);
+        } catch (InterruptedException e) {
+        }
+
+        logger.logInfo("5. Call elevator to floor 3 going UP");
+        system.callElevator(3, Direction.UP);
+
+        // Показ статуса
+        system.displayStatus();
+
+        // Периодическая печать прироста метрик: --metrics=10 (секунды времени симуляции)
+        for (String arg : args) {
+            if (arg.startsWith("--metrics=")) {
+                system.startMetricsReport(Long.parseLong(arg.substring("--metrics=".length())) * 1000);
+            }
+        }
+
+        // Генерация случайных запросов, поток пассажиров по профилю или запись вызовов
+        if (trace != null) {
+            logger.logInfo("======== CALL TRACE ========");
+            system.replayTrace(trace);
+        } else if (traffic == null) {
+            logger.logInfo("======== RANDOM REQUESTS ========");
+            system.generateRandomRequests(8);
+        } else {
+            logger.logInfo("======== PASSENGER TRAFFIC ========");
+            // Суточный профиль начинается с утреннего пика, остальные - с начала
+            long profileStart = traffic.equals("office") ? (7 * 60 + 30) * 60_000L : 0;
+            system.generateTraffic(TrafficProfile.named(traffic, numFloors, rate, 24L * 60 * 60 * 1000),
+                    profileStart);
+        }
+
+        // Работа системы заданное время
+        try {
+            clock.sleep(simulationTime * 1000L);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Финальный статус
+        system.displayStatus();
+
+        // Остановка системы
+        if (statusServer != null) {
+            statusServer.stop();
+        }
+        system.stop();
+
+        logger.logSystem("==========================================");
+        logger.logSystem("SIMULATION COMPLETED");
+        logger.logSystem("==========================================");
+        logger.stopAsync();
+    }
+
+    /**
+     * Кампус: несколько зданий со случайными запросами на общем пуле (время ускорено в 20 раз).
+     * Лог зданий ограничен ошибками, в конце печатается сводка кампуса.
+     */
+    private static void runCampusDemo(int numBuildings, int numElevators, int numFloors,
+            DispatchStrategy strategy, long seed, int httpPort) {
+        Logger logger = Logger.getInstance();
+        SimulationClock clock = new ScaledClock(20);
+        logger.setClock(clock);
+
+        logger.logSystem("==========================================");
+        logger.logSystem("ELEVATOR SYSTEM SIMULATION (CAMPUS)");
+        logger.logSystem("==========================================");
+        logger.logInfo("Configuration: " + numBuildings + " buildings x " + numElevators + " elevators, "
+                + numFloors + " floors, seed " + seed);
+
+        CampusSimulation campus = new CampusSimulation(numBuildings, numElevators, numFloors, 1, clock,
+                Runtime.getRuntime().availableProcessors(), seed);
+        for (ElevatorSystemSimulation building : campus.getBuildings()) {
+            building.getLogger().configureLevels("SYSTEM=WARN,DISPATCHER=WARN,ELEVATOR=WARN,INFO=WARN");
+            building.setDispatchStrategy(strategy);
+        }
+
+        long startNanos = System.nanoTime();
+        campus.start();
+        StatusServer statusServer = startStatusServer(campus.getBuildings(), httpPort);
+        campus.generateRandomRequests(20);
+        try {
+            clock.sleep(120_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (statusServer != null) {
+            statusServer.stop();
+        }
+        campus.stop();
+        long wallMillis = (System.nanoTime() - startNanos) / 1_000_000;
+
+        campus.logSummary();
+        logger.logInfo("Wall time: " + wallMillis + " ms");
+        logger.setClock(RealTimeClock.INSTANCE);
+        logger.logSystem("SIMULATION COMPLETED");
+    }
+
+    /**
+     * HTTP-статус зданий на localhost
+     *
+     * @param port - порт (0 - любой свободный, меньше нуля - сервер не нужен)
+     * @return запущенный сервер или null
+     */
+    private static StatusServer startStatusServer(List<ElevatorSystemSimulation> buildings, int port) {
+        if (port < 0) {
+            return null;
+        }
+        Logger logger = Logger.getInstance();
+        try {
+            StatusServer server = new StatusServer(buildings, port);
+            server.start();
+            logger.logSystem("Status server: http://localhost:" + server.getPort() + "/metrics, /status");
+            return server;
+        } catch (IOException e) {
+            logger.logError("Cannot start status server: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Независимые повторы событийной симуляции (сутки; поток по профилю или 1000 случайных запросов)
+     * и сводка показателей с доверительными интервалами
+     */
+    private static void runReplications(int replications, long seed, int numElevators, int numFloors,
+            DispatchStrategy strategy, TrafficProfile traffic) {
+        Logger logger = Logger.getInstance();
+        logger.logSystem("==========================================");
+        logger.logSystem("ELEVATOR SYSTEM SIMULATION (REPLICATIONS)");
+        logger.logSystem("==========================================");
+        logger.logInfo("Configuration: " + numElevators + " elevators, " + numFloors + " floors, "
+                + replications + " replications, seed " + seed);
+        logger.logInfo(traffic == null ? "Load: 1000 random requests per replication"
+                : "Load: traffic profile " + traffic.getName() + ", ~" + Math.round(traffic.expectedPassengers())
+                        + " passengers per replication");
+
+        ReplicationRunner runner = new ReplicationRunner(numElevators, numFloors, strategy, traffic,
+                24L * 60 * 60 * 1000, Runtime.getRuntime().availableProcessors());
+        long startNanos = System.nanoTime();
+        ReplicationRunner.Report report;
+        try {
+            report = runner.run(replications, seed);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        long wallMillis = (System.nanoTime() - startNanos) / 1_000_000;
+
+        for (ReplicationRunner.Kpi kpi : ReplicationRunner.Kpi.values()) {
+            logger.logInfo(String.format("%s: %.1f +/- %.1f (95%% CI)", kpi.getDescription(),
+                    report.mean(kpi), report.halfWidth(kpi)));
+        }
+        logger.logInfo("Wall time: " + wallMillis + " ms");
+        logger.logSystem("SIMULATION COMPLETED");
+    }
+
+    /**
+     * Те же демонстрационные запросы в событийном режиме с виртуальным временем.
+     * Моделируются целые сутки работы здания.
+     */
+    private static void runDiscreteEventDemo(int numElevators, int numFloors, int numRandomRequests,
+            DispatchStrategy strategy, long seed, TrafficProfile traffic, CallTrace.Reader trace) {
+        Logger logger = Logger.getInstance();
+        long simulatedDay = 24L * 60 * 60 * 1000;
+        if (trace != null) {
+            try {
+                simulatedDay = Math.max(simulatedDay, trace.getDurationMillis());
+            } catch (IOException e) {
+                logger.logError("Cannot read call trace: " + e.getMessage());
+                return;
+            }
+        }
+
+        logger.logSystem("==========================================");
+        logger.logSystem("ELEVATOR SYSTEM SIMULATION (DISCRETE EVENT)");
+        logger.logSystem("==========================================");
+        logger.logInfo("Configuration: " + numElevators + " elevators, " + numFloors + " floors");
+        logger.logInfo("Simulated time: " + simulatedDay / 3_600_000 + " hours");
+        logger.logInfo("Seed: " + seed);
+
+        VirtualClock virtualClock = new VirtualClock(
+                LocalDate.now().atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        DiscreteEventSimulation simulation = new DiscreteEventSimulation(numElevators, numFloors, virtualClock,
+                logger, seed);
+        simulation.getDispatcher().setStrategy(strategy);
+        logger.setClock(simulation.getClock());
+
+        // Моменты запросов соответствуют паузам в main
+        simulation.scheduleCall(2000, 5, Direction.UP);
+        simulation.scheduleFloorSelection(3500, 0, 8);
+        simulation.scheduleCall(5000, 9, Direction.DOWN);
+        simulation.scheduleFloorSelection(6500, 1, 1);
+        simulation.scheduleCall(8000, 3, Direction.UP);
+        if (trace != null) {
+            simulation.scheduleTrace(trace);
+        } else if (traffic == null) {
+            simulation.scheduleRandomRequests(8000, numRandomRequests);
+        } else {
+            simulation.scheduleTraffic(traffic);
+        }
+
+        long startNanos = System.nanoTime();
+        simulation.runUntil(simulatedDay);
+        long wallMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        if (trace != null) {
+            try {
+                trace.close();
+            } catch (IOException e) {
+                logger.logError("Failed to close call trace: " + e.getMessage());
+            }
+        }
+        logger.setClock(RealTimeClock.INSTANCE);
+
+        logger.logSystem("==========================================");
+        logger.logSystem("SIMULATION COMPLETED");
+        logger.logInfo("Events processed: " + simulation.getProcessedEvents());
+        logger.logInfo("Dispatcher " + simulation.getDispatcher().getStats());
+        logger.logInfo("Dispatcher latency " + simulation.getDispatcher().getStats().latencySummary());
+        logger.logInfo("Metrics " + simulation.getMetrics().snapshot());
+        logger.logInfo("Hall wait " + simulation.getWaitTimes());
+        logger.logInfo("Journey " + simulation.getJourneyTimes());
+        for (Elevator elevator : simulation.getElevators()) {
+            logger.logInfo("Elevator #" + (elevator.getId() + 1) + " wait " + elevator.getWaitTimes()
+                    + ", journey " + elevator.getJourneyTimes());
+        }
+        if (traffic != null) {
+            logger.logInfo("Traffic " + simulation.getDispatcher().getHallCalls().getPassengers());
+        }
+        logger.logInfo("Wall time: " + wallMillis + " ms");
+        logger.logSystem("==========================================");
+    }
+
+}
@@ -0,0 +1,58 @@
+package elevator;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Счетчики исполнения лифтов для сравнения режима поток-на-лифт и общего
+ * планировщика: сколько раз лифты просыпались (в том числе впустую),
+ * и насколько позже срока начинался очередной шаг.
+ */
+final class EngineStats {
+    private final LongAdder wakeups = new LongAdder(); // Все пробуждения циклов лифтов
+    private final LongAdder idleWakeups = new LongAdder(); // Пробуждения, не нашедшие работы
+    private final LongAdder lateSteps = new LongAdder(); // Шаги, для которых известен срок
+    private final LongAdder latenessNanos = new LongAdder(); // Суммарное опоздание шагов
+    private final LongAccumulator maxLatenessNanos = new LongAccumulator(Math::max, 0);
+
+    void recordWakeup(boolean idle) {
+        wakeups.increment();
+        if (idle) {
+            idleWakeups.increment();
+        }
+    }
+
+    /**
+     * @param dueNanos     - когда шаг должен был начаться (SimulationClock.nanoTime)
+     * @param startedNanos - когда шаг начался
+     */
+    void recordLateness(long dueNanos, long startedNanos) {
+        long lateness = Math.max(0, startedNanos - dueNanos);
+        lateSteps.increment();
+        latenessNanos.add(lateness);
+        maxLatenessNanos.accumulate(lateness);
+    }
+
+    public long getWakeups() {
+        return wakeups.sum();
+    }
+
+    public long getIdleWakeups() {
+        return idleWakeups.sum();
+    }
+
+    public long getAverageLatenessNanos() {
+        long steps = lateSteps.sum();
+        return steps == 0 ? 0 : latenessNanos.sum() / steps;
+    }
+
+    public long getMaxLatenessNanos() {
+        return maxLatenessNanos.get();
+    }
+
+    @Override
+    public String toString() {
+        return "wakeups: " + getWakeups() + " (idle: " + getIdleWakeups() + "), lateness avg/max: "
+                + getAverageLatenessNanos() / 1000 + "/" + getMaxLatenessNanos() / 1000 + " us";
+    }
+}
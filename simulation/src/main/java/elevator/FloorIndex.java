@@ -0,0 +1,68 @@
+package elevator;
+
+import java.util.Arrays;
+
+/**
+ * Индекс лифтов по этажу: номера лифтов, сгруппированные по этажам
+ * (сортировка подсчетом за O(лифтов + этажей), без создания объектов).
+ * Диспетчер строит индекс из того же массива снимков, по которому
+ * считает стоимость, поэтому этаж группы всегда совпадает с этажом снимка
+ * и отсечение дальних этажей точное. Лифты индекс не обновляют и его
+ * замков не берут; индекс принадлежит одному потоку диспетчера.
+ */
+final class FloorIndex {
+    private final int maxFloor;
+    private final int[] start; // Начало группы этажа в cars; группа этажа f - [start[f], start[f + 1])
+    private final int[] cursor; // Рабочий массив для раскладки
+    private int[] cars = new int[0]; // Номера лифтов по этажам, внутри этажа по возрастанию
+
+    FloorIndex(int maxFloor) {
+        this.maxFloor = maxFloor;
+        this.start = new int[maxFloor + 2];
+        this.cursor = new int[maxFloor + 2];
+    }
+
+    int getMaxFloor() {
+        return maxFloor;
+    }
+
+    /**
+     * Раскладка лифтов по этажам их снимков
+     */
+    void rebuild(long[] states) {
+        int fleetSize = states.length;
+        if (cars.length < fleetSize) {
+            cars = new int[fleetSize];
+        }
+        Arrays.fill(start, 0);
+        for (int car = 0; car < fleetSize; car++) {
+            start[floorOf(states[car]) + 1]++;
+        }
+        for (int floor = 1; floor <= maxFloor + 1; floor++) {
+            start[floor] += start[floor - 1];
+        }
+        System.arraycopy(start, 0, cursor, 0, start.length);
+        for (int car = 0; car < fleetSize; car++) {
+            cars[cursor[floorOf(states[car])]++] = car;
+        }
+    }
+
+    /**
+     * Позиции лифтов этажа: от begin(floor) до end(floor), не включая
+     */
+    int begin(int floor) {
+        return start[floor];
+    }
+
+    int end(int floor) {
+        return start[floor + 1];
+    }
+
+    int car(int position) {
+        return cars[position];
+    }
+
+    private int floorOf(long state) {
+        return Math.min(ElevatorSnapshot.floor(state), maxFloor);
+    }
+}
@@ -0,0 +1,122 @@
+package elevator;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Таблица активных вызовов с этажей: для каждой пары (этаж, направление) -
+ * время первого нажатия кнопки или NONE, если вызова нет.
+ * Вызов активен с нажатия до открытия дверей лифта, который его выполнил,
+ * поэтому повторные нажатия той же кнопки поглощаются при приеме и не
+ * попадают в очередь диспетчера. По времени первого нажатия при выполнении
+ * вызова считается ожидание пассажира на этаже.
+ *
+ * За вызовами стоят ожидающие пассажиры с этажами назначения (WaitingPassengers),
+ * если их приход моделируется генератором потока пассажиров.
+ *
+ * Без замков: нажатие - compareAndSet, снятие - getAndSet; одну таблицу
+ * делят все диспетчеры зон здания, так как вызов может выполнить лифт
+ * другой зоны.
+ */
+final class HallCallTable {
+    static final long NONE = Long.MIN_VALUE;
+
+    private final int maxFloor;
+    private final AtomicLongArray pressedAt; // [этаж * 2 + направление], индексы этажей с единицы
+    private final LongAdder served = new LongAdder(); // Выполненные вызовы
+    private final LongAdder waitMillis = new LongAdder(); // Суммарное ожидание на этажах
+    private final LongAccumulator maxWaitMillis = new LongAccumulator(Math::max, 0);
+    private final WaitingPassengers passengers; // Ожидающие на этажах пассажиры
+
+    HallCallTable(int maxFloor) {
+        this.maxFloor = maxFloor;
+        this.passengers = new WaitingPassengers(maxFloor);
+        this.pressedAt = new AtomicLongArray((maxFloor + 1) * 2);
+        for (int i = 0; i < pressedAt.length(); i++) {
+            pressedAt.set(i, NONE);
+        }
+    }
+
+    /**
+     * Регистрация нажатия
+     *
+     * @return true если вызова не было (его нужно назначить), false - нажатие поглощено
+     */
+    boolean press(int floor, Direction direction, long timestamp) {
+        return pressedAt.compareAndSet(slot(floor, direction), NONE, timestamp);
+    }
+
+    /**
+     * Снятие вызова (выполнен или отброшен)
+     *
+     * @return время первого нажатия или NONE, если вызова не было
+     */
+    long clear(int floor, Direction direction) {
+        return pressedAt.getAndSet(slot(floor, direction), NONE);
+    }
+
+    /**
+     * Вызов выполнен (лифт открыл двери): снятие и учет ожидания
+     *
+     * @return ожидание на этаже или -1, если вызова не было
+     */
+    long serve(int floor, Direction direction, long now) {
+        long pressed = clear(floor, direction);
+        if (pressed == NONE) {
+            return -1;
+        }
+        long wait = Math.max(0, now - pressed);
+        served.increment();
+        waitMillis.add(wait);
+        maxWaitMillis.accumulate(wait);
+        return wait;
+    }
+
+    boolean isActive(int floor, Direction direction) {
+        return pressedAt.get(slot(floor, direction)) != NONE;
+    }
+
+    /**
+     * Число активных вызовов (проход по таблице без замков)
+     */
+    public int getActiveCount() {
+        int active = 0;
+        for (int i = 0; i < pressedAt.length(); i++) {
+            if (pressedAt.get(i) != NONE) {
+                active++;
+            }
+        }
+        return active;
+    }
+
+    WaitingPassengers getPassengers() {
+        return passengers;
+    }
+
+    public long getServedCount() {
+        return served.sum();
+    }
+
+    public long getAverageWaitMillis() {
+        long count = served.sum();
+        return count == 0 ? 0 : waitMillis.sum() / count;
+    }
+
+    public long getMaxWaitMillis() {
+        return maxWaitMillis.get();
+    }
+
+    /**
+     * С крайних этажей можно уехать только в одну сторону - так же,
+     * как вызов записывает лифт
+     */
+    private int slot(int floor, Direction direction) {
+        if (floor == maxFloor) {
+            direction = Direction.DOWN;
+        } else if (floor == 1) {
+            direction = Direction.UP;
+        }
+        return floor * 2 + (direction == Direction.UP ? 0 : 1);
+    }
+}
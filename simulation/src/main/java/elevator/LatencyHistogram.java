@@ -0,0 +1,144 @@
+package elevator;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Гистограмма времен с логарифмически-линейными корзинами: до 16 единиц -
+ * по корзине на единицу, дальше каждая степень двойки делится на 16 равных
+ * корзин (относительная ошибка квантиля не больше 1/32). Единица задается
+ * при создании: миллисекунды для ожидания пассажиров (диапазон до 2^31 мс,
+ * около 24 суток), микросекунды для решений диспетчера. Большие значения
+ * попадают в последнюю корзину, максимум хранится точно.
+ *
+ * Память постоянна (448 счетчиков), запись - одно атомарное увеличение
+ * счетчика без замков и без создания объектов, поэтому гистограммы можно
+ * держать включенными всегда. Квантили считаются при чтении по текущим
+ * счетчикам; при параллельной записи это снимок с точностью до последних записей.
+ */
+final class LatencyHistogram {
+    private static final int SUB_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int MAX_EXPONENT = 31;
+    static final long MAX_VALUE = (1L << MAX_EXPONENT) - 1;
+    static final int BUCKETS = (MAX_EXPONENT - SUB_BITS + 1) * SUB_BUCKETS;
+
+    private final String unit; // Единица значений для вывода
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    LatencyHistogram() {
+        this("ms");
+    }
+
+    /**
+     * @param unit - единица значений для вывода, например "us"
+     */
+    LatencyHistogram(String unit) {
+        this.unit = unit;
+    }
+
+    void record(long value) {
+        value = Math.max(0, value);
+        counts.incrementAndGet(index(Math.min(value, MAX_VALUE)));
+        total.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Добавление записей другой гистограммы (сводка по зданию из гистограмм лифтов)
+     */
+    void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            long count = other.counts.get(i);
+            if (count != 0) {
+                counts.addAndGet(i, count);
+            }
+        }
+        total.add(other.total.sum());
+        max.accumulate(other.max.get());
+    }
+
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    public String getUnit() {
+        return unit;
+    }
+
+    public long getAverage() {
+        long count = getCount();
+        return count == 0 ? 0 : total.sum() / count;
+    }
+
+    /**
+     * Сумма всех записанных значений
+     */
+    public long getSum() {
+        return total.sum();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Квантиль: середина корзины, в которую попадает значение с таким рангом
+     *
+     * @param quantile - от 0 до 1, например 0.99
+     */
+    public long getPercentile(double quantile) {
+        if (quantile < 0 || quantile > 1) {
+            throw new IllegalArgumentException("Quantile must be in [0, 1]: " + quantile);
+        }
+        long count = getCount();
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(lowerBound(i) + (width(i) - 1) / 2, getMax());
+            }
+        }
+        return getMax(); // Счетчики выросли во время чтения
+    }
+
+    @Override
+    public String toString() {
+        return String.format("p50/p90/p99/max: %d/%d/%d/%d %s (n=%d)",
+                getPercentile(0.5), getPercentile(0.9), getPercentile(0.99),
+                getMax(), unit, getCount());
+    }
+
+    static int index(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BITS)) - SUB_BUCKETS;
+        return ((exponent - SUB_BITS + 1) << SUB_BITS) + sub;
+    }
+
+    static long lowerBound(int index) {
+        int bucket = index >>> SUB_BITS;
+        if (bucket == 0) {
+            return index;
+        }
+        return (long) (SUB_BUCKETS + (index & (SUB_BUCKETS - 1))) << (bucket - 1);
+    }
+
+    static long width(int index) {
+        int bucket = index >>> SUB_BITS;
+        return bucket == 0 ? 1 : 1L << (bucket - 1);
+    }
+}
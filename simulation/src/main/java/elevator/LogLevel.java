@@ -0,0 +1,32 @@
+package elevator;
+
+/**
+ * Уровни подробности лога. Категория с уровнем L печатает сообщения
+ * с уровнем от ERROR до L включительно; OFF выключает категорию полностью.
+ */
+enum LogLevel {
+    OFF,
+    ERROR, // ошибки и отказы
+    WARN, // штатные, но важные отказы (лифт заполнен)
+    INFO, // основные события: вызовы, остановки, посадка
+    DEBUG; // подробности: каждый этаж движения, разделители
+
+    /**
+     * Печатается ли сообщение уровня messageLevel при уровне категории this
+     */
+    boolean includes(LogLevel messageLevel) {
+        return messageLevel != OFF && messageLevel.ordinal() <= ordinal();
+    }
+}
+
+/**
+ * Категории сообщений лога, для каждой задается свой уровень.
+ * Для ELEVATOR уровень можно переопределить для отдельного лифта.
+ */
+enum LogCategory {
+    SYSTEM,
+    DISPATCHER,
+    ELEVATOR,
+    ERROR,
+    INFO
+}
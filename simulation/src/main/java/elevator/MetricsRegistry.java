@@ -0,0 +1,186 @@
+package elevator;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Счетчики работы здания по именам: лифты, диспетчер и логгер получают
+ * свои LongAdder один раз при подключении и на горячем пути только
+ * увеличивают их. LongAdder разносит одновременные увеличения по ячейкам,
+ * поэтому потоки лифтов не спорят за одну переменную; сумма собирается
+ * только при чтении.
+ *
+ * Кроме счетчиков - показатели, которые уже считаются в других местах
+ * (gauge: читаются при снимке). Снимок доступен как Map, периодически
+ * через планировщик и по JMX: один DynamicMBean на здание, атрибут на каждое имя.
+ */
+final class MetricsRegistry {
+    static final String DOMAIN = "elevator";
+
+    private final ConcurrentHashMap<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+    private volatile ObjectName objectName; // Имя в JMX (null - не зарегистрирован)
+
+    /**
+     * Счетчик по имени (создается при первом запросе); ссылку нужно сохранить,
+     * а не искать счетчик при каждом увеличении
+     */
+    LongAdder counter(String name) {
+        return counters.computeIfAbsent(name, key -> new LongAdder());
+    }
+
+    /**
+     * Показатель, значение которого читается при снимке
+     */
+    void gauge(String name, LongSupplier value) {
+        gauges.put(name, value);
+    }
+
+    /**
+     * Текущие значения всех счетчиков и показателей по именам
+     */
+    public Map<String, Long> snapshot() {
+        Map<String, Long> values = new TreeMap<>();
+        counters.forEach((name, counter) -> values.put(name, counter.sum()));
+        gauges.forEach((name, gauge) -> values.put(name, gauge.getAsLong()));
+        return Collections.unmodifiableMap(values);
+    }
+
+    /**
+     * Значение по имени или 0, если такого нет
+     */
+    public long get(String name) {
+        LongAdder counter = counters.get(name);
+        if (counter != null) {
+            return counter.sum();
+        }
+        LongSupplier gauge = gauges.get(name);
+        return gauge == null ? 0 : gauge.getAsLong();
+    }
+
+    /**
+     * Показатель (true) или счетчик (false)
+     */
+    boolean isGauge(String name) {
+        return gauges.containsKey(name);
+    }
+
+    /**
+     * Периодические снимки: получатель видит прирост счетчиков за период
+     * и текущие значения показателей
+     *
+     * @return задача, отмена которой прекращает снимки
+     */
+    ScheduledFuture<?> scheduleSnapshots(ScheduledExecutorService executor, long periodNanos,
+            Consumer<Map<String, Long>> consumer) {
+        AtomicReference<Map<String, Long>> previous = new AtomicReference<>(snapshot());
+        return executor.scheduleAtFixedRate(() -> {
+            Map<String, Long> current = snapshot();
+            Map<String, Long> delta = new TreeMap<>();
+            Map<String, Long> before = previous.getAndSet(current);
+            current.forEach((name, value) -> delta.put(name,
+                    gauges.containsKey(name) ? value : value - before.getOrDefault(name, 0L)));
+            consumer.accept(Collections.unmodifiableMap(delta));
+        }, periodNanos, periodNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Регистрация в платформенном MBeanServer как elevator:type=Metrics,name=...
+     */
+    void registerMBean(String name) throws JMException {
+        ObjectName objectName = new ObjectName(DOMAIN + ":type=Metrics,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(new MetricsMBean(), objectName);
+        this.objectName = objectName;
+    }
+
+    void unregisterMBean() {
+        ObjectName name = objectName;
+        if (name == null) {
+            return;
+        }
+        objectName = null;
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.unregisterMBean(name);
+        } catch (JMException e) {
+            // Уже снят
+        }
+    }
+
+    ObjectName getObjectName() {
+        return objectName;
+    }
+
+    /**
+     * Только чтение: атрибуты - имена счетчиков и показателей (long)
+     */
+    private final class MetricsMBean implements DynamicMBean {
+        @Override
+        public Object getAttribute(String attribute) throws AttributeNotFoundException {
+            if (!counters.containsKey(attribute) && !gauges.containsKey(attribute)) {
+                throw new AttributeNotFoundException(attribute);
+            }
+            return get(attribute);
+        }
+
+        @Override
+        public AttributeList getAttributes(String[] attributes) {
+            AttributeList list = new AttributeList();
+            for (String attribute : attributes) {
+                if (counters.containsKey(attribute) || gauges.containsKey(attribute)) {
+                    list.add(new Attribute(attribute, get(attribute)));
+                }
+            }
+            return list;
+        }
+
+        @Override
+        public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+            throw new AttributeNotFoundException("Metrics are read-only: " + attribute.getName());
+        }
+
+        @Override
+        public AttributeList setAttributes(AttributeList attributes) {
+            return new AttributeList();
+        }
+
+        @Override
+        public Object invoke(String actionName, Object[] params, String[] signature) {
+            throw new UnsupportedOperationException("No operations: " + actionName);
+        }
+
+        @Override
+        public MBeanInfo getMBeanInfo() {
+            // Счетчики могут добавляться на ходу, поэтому описание строится при каждом запросе
+            Map<String, Long> values = snapshot();
+            MBeanAttributeInfo[] attributes = new MBeanAttributeInfo[values.size()];
+            int i = 0;
+            for (String name : values.keySet()) {
+                attributes[i++] = new MBeanAttributeInfo(name, "long",
+                        gauges.containsKey(name) ? "gauge" : "counter", true, false, false);
+            }
+            return new MBeanInfo(MetricsRegistry.class.getName(), "Elevator building metrics", attributes,
+                    null, null, null);
+        }
+    }
+}
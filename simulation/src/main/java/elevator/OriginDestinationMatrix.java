@@ -0,0 +1,118 @@
+package elevator;
+
+import java.util.SplittableRandom;
+
+/**
+ * Матрица поездок (origin-destination): вес каждой пары (этаж прихода,
+ * этаж назначения). Хранится как накопленные веса по всем парам, поэтому
+ * выбор поездки - одно случайное число и двоичный поиск, без объектов.
+ * Память - O(этажей^2).
+ */
+final class OriginDestinationMatrix {
+    static final int LOBBY = 1; // Вход в здание
+
+    private final int maxFloor;
+    private final double[] cumulative; // Накопленный вес пар [откуда * (maxFloor + 1) + куда], не убывает
+
+    /**
+     * @param weights - веса [откуда][куда], индексы этажей с единицы; диагональ не учитывается
+     */
+    OriginDestinationMatrix(double[][] weights) {
+        this.maxFloor = weights.length - 1;
+        if (maxFloor < 2) {
+            throw new IllegalArgumentException("Trips need at least two floors: " + maxFloor);
+        }
+        int stride = maxFloor + 1;
+        this.cumulative = new double[stride * stride];
+        // Сумма переносится и в пустые ячейки (этаж 0, диагональ), чтобы массив
+        // не убывал по всей длине: иначе двоичный поиск попадает не в ту пару
+        double total = 0;
+        for (int origin = 0; origin <= maxFloor; origin++) {
+            for (int destination = 0; destination <= maxFloor; destination++) {
+                double weight = origin == 0 || destination == 0 || origin == destination
+                        ? 0 : weights[origin][destination];
+                if (weight < 0) {
+                    throw new IllegalArgumentException("Negative weight " + origin + " -> " + destination);
+                }
+                total += weight;
+                cumulative[origin * stride + destination] = total;
+            }
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("Matrix has no trips");
+        }
+    }
+
+    /**
+     * Смесь стандартных офисных потоков (доли нормируются):
+     * подъем из вестибюля, спуск в вестибюль и поездки между этажами,
+     * этажи внутри каждого потока равновероятны
+     */
+    static OriginDestinationMatrix office(int maxFloor, double upPeak, double downPeak, double interfloor) {
+        return new OriginDestinationMatrix(officeWeights(maxFloor, upPeak, downPeak, interfloor));
+    }
+
+    /**
+     * Веса [откуда][куда] офисной смеси
+     */
+    static double[][] officeWeights(int maxFloor, double upPeak, double downPeak, double interfloor) {
+        double[][] weights = new double[maxFloor + 1][maxFloor + 1];
+        int upper = maxFloor - 1; // Этажи выше вестибюля
+        for (int floor = 2; floor <= maxFloor; floor++) {
+            weights[LOBBY][floor] += upPeak / upper;
+            weights[floor][LOBBY] += downPeak / upper;
+        }
+        if (upper > 1) {
+            double pairs = (double) upper * (upper - 1);
+            for (int origin = 2; origin <= maxFloor; origin++) {
+                for (int destination = 2; destination <= maxFloor; destination++) {
+                    if (origin != destination) {
+                        weights[origin][destination] += interfloor / pairs;
+                    }
+                }
+            }
+        }
+        return weights;
+    }
+
+    int getMaxFloor() {
+        return maxFloor;
+    }
+
+    /**
+     * Доля поездок, начинающихся на этаже
+     */
+    double originShare(int floor) {
+        int stride = maxFloor + 1;
+        double row = cumulative[floor * stride + maxFloor] - cumulative[floor * stride - 1];
+        return row / cumulative[cumulative.length - 1];
+    }
+
+    /**
+     * Случайная поездка: откуда * (maxFloor + 1) + куда
+     */
+    int sample(SplittableRandom random) {
+        double total = cumulative[cumulative.length - 1];
+        double target = Math.min(random.nextDouble() * total, Math.nextDown(total)); // Округление не дает total
+        // Первая пара с накопленным весом больше target (у пар с нулевым весом он не растет)
+        int low = 0;
+        int high = cumulative.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cumulative[mid] > target) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    int origin(int trip) {
+        return trip / (maxFloor + 1);
+    }
+
+    int destination(int trip) {
+        return trip % (maxFloor + 1);
+    }
+}
@@ -0,0 +1,55 @@
+package elevator;
+
+import java.util.SplittableRandom;
+
+/**
+ * Независимые потоки случайных чисел симуляции, выведенные из одного
+ * главного зерна: паузы между запросами, этажи и направления запросов,
+ * выход пассажиров (свой поток у каждого лифта).
+ * Потоки отделяются (split) в фиксированном порядке, поэтому одно и то же
+ * зерно в событийном режиме воспроизводит ту же последовательность событий,
+ * а добавление лифта или смена одного источника не сдвигает остальные.
+ *
+ * SplittableRandom не потокобезопасен: каждый поток принадлежит одному
+ * владельцу (генератору запросов или лифту под его замком).
+ */
+final class RandomStreams {
+    private final long seed; // Главное зерно (печатается для повтора прогона)
+    private final SplittableRandom arrivals; // Паузы между запросами
+    private final SplittableRandom destinations; // Этажи, направления, лифты запросов
+    private final SplittableRandom exits; // Источник потоков выхода пассажиров по лифтам
+
+    RandomStreams(long seed) {
+        this.seed = seed;
+        SplittableRandom master = new SplittableRandom(seed);
+        this.arrivals = master.split();
+        this.destinations = master.split();
+        this.exits = master.split();
+    }
+
+    /**
+     * Случайное главное зерно (когда воспроизводимость не нужна)
+     */
+    static long randomSeed() {
+        return new SplittableRandom().nextLong();
+    }
+
+    long getSeed() {
+        return seed;
+    }
+
+    SplittableRandom arrivals() {
+        return arrivals;
+    }
+
+    SplittableRandom destinations() {
+        return destinations;
+    }
+
+    /**
+     * Поток выхода пассажиров для очередного лифта (вызывать в порядке создания лифтов)
+     */
+    SplittableRandom nextExitStream() {
+        return exits.split();
+    }
+}
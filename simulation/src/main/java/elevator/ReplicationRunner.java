@@ -0,0 +1,212 @@
+package elevator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Независимые повторы (replications) одного сценария методом Монте-Карло.
+ * Каждый повтор - отдельная событийная симуляция со своим зерном, своими
+ * виртуальными часами, лифтами, диспетчером и логгером, поэтому повторы
+ * выполняются параллельно на ForkJoinPool без общего изменяемого состояния.
+ * Зерна повторов выводятся из одного базового зерна, так что весь набор
+ * воспроизводится запуском с тем же зерном.
+ * Нагрузка повтора - поток пассажиров по профилю (профиль неизменяемый и общий
+ * для всех повторов, приходы у каждого повтора свои) или случайные запросы.
+ * По каждому показателю считаются среднее и 95% доверительный интервал
+ * по t-распределению Стьюдента.
+ */
+final class ReplicationRunner {
+    /**
+     * Показатели одного повтора
+     */
+    enum Kpi {
+        SERVED_CALLS("served hall calls"),
+        AVERAGE_WAIT("avg hall wait, ms"),
+        P90_WAIT("p90 hall wait, ms"),
+        MAX_WAIT("max hall wait, ms"),
+        COALESCED("coalesced presses"),
+        EVENTS("events processed");
+
+        private final String description;
+
+        Kpi(String description) {
+            this.description = description;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+    }
+
+    // Квантили t-распределения для 95% интервала, df = 1..30
+    private static final double[] T_95 = {
+            12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262, 2.228,
+            2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086,
+            2.080, 2.074, 2.069, 2.064, 2.060, 2.056, 2.052, 2.048, 2.045, 2.042 };
+
+    private final int numElevators;
+    private final int maxFloor;
+    private final DispatchStrategy strategy;
+    private final int requestsPerRun; // Случайных запросов за повтор (без профиля)
+    private final TrafficProfile traffic; // Поток пассажиров (null - случайные запросы)
+    private final long durationMillis; // Длительность повтора во времени симуляции
+    private final int parallelism; // Размер пула повторов
+
+    ReplicationRunner(int numElevators, int maxFloor, DispatchStrategy strategy, int requestsPerRun,
+            long durationMillis) {
+        this(numElevators, maxFloor, strategy, requestsPerRun, durationMillis,
+                Runtime.getRuntime().availableProcessors());
+    }
+
+    ReplicationRunner(int numElevators, int maxFloor, DispatchStrategy strategy, int requestsPerRun,
+            long durationMillis, int parallelism) {
+        this(numElevators, maxFloor, strategy, requestsPerRun, null, durationMillis, parallelism);
+    }
+
+    /**
+     * Повторы с потоком пассажиров по профилю
+     *
+     * @param traffic - профиль; null - 1000 случайных запросов за повтор
+     */
+    ReplicationRunner(int numElevators, int maxFloor, DispatchStrategy strategy, TrafficProfile traffic,
+            long durationMillis, int parallelism) {
+        this(numElevators, maxFloor, strategy, 1000, traffic, durationMillis, parallelism);
+    }
+
+    private ReplicationRunner(int numElevators, int maxFloor, DispatchStrategy strategy, int requestsPerRun,
+            TrafficProfile traffic, long durationMillis, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        }
+        this.numElevators = numElevators;
+        this.maxFloor = maxFloor;
+        this.strategy = strategy;
+        this.requestsPerRun = requestsPerRun;
+        this.traffic = traffic;
+        this.durationMillis = durationMillis;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Выполнение повторов и сбор показателей
+     *
+     * @param replications - число повторов
+     * @param seed         - базовое зерно набора
+     */
+    Report run(int replications, long seed) throws InterruptedException {
+        if (replications < 1) {
+            throw new IllegalArgumentException("Need at least one replication: " + replications);
+        }
+        SplittableRandom seeds = new SplittableRandom(seed);
+        List<Callable<double[]>> tasks = new ArrayList<>(replications);
+        for (int i = 0; i < replications; i++) {
+            final int index = i;
+            final long runSeed = seeds.nextLong();
+            tasks.add(() -> runOnce(index, runSeed));
+        }
+
+        double[][] samples = new double[Kpi.values().length][replications];
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<Future<double[]>> results = pool.invokeAll(tasks);
+            for (int run = 0; run < replications; run++) {
+                double[] kpis = results.get(run).get();
+                for (int k = 0; k < kpis.length; k++) {
+                    samples[k][run] = kpis[k];
+                }
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Replication failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        return new Report(samples);
+    }
+
+    /**
+     * Один повтор: своя симуляция, свой логгер (только ошибки), свое зерно
+     */
+    private double[] runOnce(int index, long seed) {
+        VirtualClock clock = new VirtualClock(0);
+        Logger logger = new Logger("R" + (index + 1));
+        logger.setClock(clock);
+        for (LogCategory category : LogCategory.values()) {
+            logger.setLevel(category, LogLevel.ERROR);
+        }
+
+        DiscreteEventSimulation simulation = new DiscreteEventSimulation(numElevators, maxFloor, clock, logger,
+                seed);
+        simulation.getDispatcher().setStrategy(strategy);
+        if (traffic != null) {
+            simulation.scheduleTraffic(traffic);
+        } else {
+            simulation.scheduleRandomRequests(0, requestsPerRun);
+        }
+        simulation.runUntil(durationMillis);
+
+        HallCallTable hallCalls = simulation.getDispatcher().getHallCalls();
+        double[] kpis = new double[Kpi.values().length];
+        kpis[Kpi.SERVED_CALLS.ordinal()] = hallCalls.getServedCount();
+        kpis[Kpi.AVERAGE_WAIT.ordinal()] = hallCalls.getAverageWaitMillis();
+        kpis[Kpi.P90_WAIT.ordinal()] = simulation.getWaitTimes().getPercentile(0.9);
+        kpis[Kpi.MAX_WAIT.ordinal()] = hallCalls.getMaxWaitMillis();
+        kpis[Kpi.COALESCED.ordinal()] = simulation.getDispatcher().getStats().getCoalescedCount();
+        kpis[Kpi.EVENTS.ordinal()] = simulation.getProcessedEvents();
+        return kpis;
+    }
+
+    /**
+     * Показатели всех повторов: среднее и полуширина 95% доверительного интервала
+     */
+    static final class Report {
+        private final double[][] samples; // [показатель][повтор]
+
+        Report(double[][] samples) {
+            this.samples = samples;
+        }
+
+        public int getReplications() {
+            return samples[0].length;
+        }
+
+        public double mean(Kpi kpi) {
+            double sum = 0;
+            for (double value : samples[kpi.ordinal()]) {
+                sum += value;
+            }
+            return sum / getReplications();
+        }
+
+        /**
+         * Полуширина интервала: t * s / sqrt(n); для одного повтора - 0
+         */
+        public double halfWidth(Kpi kpi) {
+            int n = getReplications();
+            if (n < 2) {
+                return 0;
+            }
+            double mean = mean(kpi);
+            double squares = 0;
+            for (double value : samples[kpi.ordinal()]) {
+                squares += (value - mean) * (value - mean);
+            }
+            double stdDev = Math.sqrt(squares / (n - 1));
+            return tQuantile(n - 1) * stdDev / Math.sqrt(n);
+        }
+
+        private static double tQuantile(int degreesOfFreedom) {
+            if (degreesOfFreedom <= T_95.length) {
+                return T_95[degreesOfFreedom - 1];
+            }
+            if (degreesOfFreedom <= 60) {
+                return 2.000;
+            }
+            return degreesOfFreedom <= 120 ? 1.980 : 1.960;
+        }
+    }
+}
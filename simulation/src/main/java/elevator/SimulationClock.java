@@ -0,0 +1,158 @@
+package elevator;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+
+/**
+ * Источник времени для всей системы лифтов.
+ * Все задержки (движение, двери, паузы между запросами), метки времени запросов
+ * и время в логе берутся отсюда, поэтому одну и ту же систему можно запускать
+ * в реальном времени, в ускоренном режиме или на виртуальных часах.
+ * Все длительности задаются в миллисекундах времени симуляции.
+ * Затраты процессора (время планирования, опоздание шагов) к времени симуляции
+ * не относятся и измеряются по nanoTime() - монотонному реальному времени.
+ */
+interface SimulationClock {
+
+    /**
+     * Текущее время симуляции в миллисекундах от эпохи (для меток времени и лога)
+     */
+    long currentTimeMillis();
+
+    /**
+     * Монотонное реальное время в наносекундах для замеров задержек и затрат
+     * (планирование, передача вызова, опоздание шагов). Не зависит ни от перевода
+     * системных часов, ни от ускорения симуляции.
+     */
+    default long nanoTime() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Сколько реальных наносекунд соответствует заданному времени симуляции
+     */
+    long toRealNanos(long simulatedMillis);
+
+    /**
+     * Пауза текущего потока на заданное время симуляции
+     */
+    default void sleep(long simulatedMillis) throws InterruptedException {
+        TimeUnit.NANOSECONDS.sleep(toRealNanos(simulatedMillis));
+    }
+
+    /**
+     * Ожидание условия не дольше заданного времени симуляции (замок должен быть захвачен)
+     */
+    default void await(Condition condition, long simulatedMillis) throws InterruptedException {
+        condition.awaitNanos(toRealNanos(simulatedMillis));
+    }
+}
+
+/**
+ * Реальное время и Thread.sleep без изменений. Часы отсчитываются от момента
+ * создания по монотонному System.nanoTime, поэтому перевод системных часов
+ * не сдвигает метки запросов и не искажает задержки.
+ */
+final class RealTimeClock implements SimulationClock {
+    static final RealTimeClock INSTANCE = new RealTimeClock();
+
+    private final long startMillis; // Системное время в момент создания
+    private final long startNanos; // Монотонное время в момент создания
+
+    private RealTimeClock() {
+        this.startMillis = System.currentTimeMillis();
+        this.startNanos = nanoTime();
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return startMillis + (nanoTime() - startNanos) / 1_000_000;
+    }
+
+    @Override
+    public long toRealNanos(long simulatedMillis) {
+        return TimeUnit.MILLISECONDS.toNanos(simulatedMillis);
+    }
+}
+
+/**
+ * Ускоренное реальное время: потоки лифтов работают как обычно,
+ * но все паузы короче в speedup раз, а часы идут в speedup раз быстрее.
+ * Например, при speedup = 100 час работы здания проходит за 36 секунд.
+ */
+final class ScaledClock implements SimulationClock {
+    private final double speedup; // Во сколько раз быстрее реального времени
+    private final long startMillis; // Время симуляции в момент создания часов
+    private final long startNanos; // Реальное монотонное время в момент создания
+
+    public ScaledClock(double speedup) {
+        if (speedup <= 0) {
+            throw new IllegalArgumentException("Speedup must be positive: " + speedup);
+        }
+        this.speedup = speedup;
+        this.startMillis = System.currentTimeMillis();
+        this.startNanos = nanoTime();
+    }
+
+    public double getSpeedup() {
+        return speedup;
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return startMillis + (long) ((nanoTime() - startNanos) * speedup / 1_000_000);
+    }
+
+    @Override
+    public long toRealNanos(long simulatedMillis) {
+        return (long) (TimeUnit.MILLISECONDS.toNanos(simulatedMillis) / speedup);
+    }
+}
+
+/**
+ * Виртуальные часы событийной симуляции: время меняется только вызовом advanceTo,
+ * ожидание в потоках не поддерживается.
+ */
+final class VirtualClock implements SimulationClock {
+    private final long startMillis; // Время от эпохи, соответствующее нулю симуляции
+    private long elapsedMillis = 0; // Прошедшее виртуальное время
+
+    public VirtualClock(long startMillis) {
+        this.startMillis = startMillis;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * Перевод часов вперед (назад время не идет)
+     */
+    void advanceTo(long elapsedMillis) {
+        if (elapsedMillis < this.elapsedMillis) {
+            throw new IllegalArgumentException("Virtual time cannot go backwards: " +
+                    elapsedMillis + " < " + this.elapsedMillis);
+        }
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return startMillis + elapsedMillis;
+    }
+
+    @Override
+    public long toRealNanos(long simulatedMillis) {
+        return 0;
+    }
+
+    @Override
+    public void sleep(long simulatedMillis) {
+        throw new UnsupportedOperationException("Virtual clock cannot block; schedule an event instead");
+    }
+
+    @Override
+    public void await(Condition condition, long simulatedMillis) {
+        throw new UnsupportedOperationException("Virtual clock cannot block; schedule an event instead");
+    }
+}
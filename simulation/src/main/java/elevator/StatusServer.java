@@ -0,0 +1,273 @@
+package elevator;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Локальный HTTP-сервер состояния (только 127.0.0.1):
+ * /metrics - метрики в текстовом формате Prometheus, /status - то же и состояние парка в JSON.
+ *
+ * Ответы строятся только из данных, которые читаются без замков: опубликованные
+ * снимки лифтов (ElevatorSnapshot), счетчики реестра метрик, таблица вызовов
+ * на атомарных массивах и счетчики очередей диспетчеров. Замки лифтов сервер
+ * не берет никогда, поэтому частый опрос не задерживает шаги лифтов.
+ * Запросы обслуживает свой небольшой пул фоновых потоков.
+ */
+final class StatusServer {
+    private static final int THREADS = 2;
+    private static final double[] QUANTILES = { 0.5, 0.9, 0.99 };
+
+    private final List<ElevatorSystemSimulation> buildings;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    StatusServer(ElevatorSystemSimulation building, int port) throws IOException {
+        this(Collections.singletonList(building), port);
+    }
+
+    /**
+     * @param port - порт на localhost (0 - любой свободный)
+     */
+    StatusServer(List<ElevatorSystemSimulation> buildings, int port) throws IOException {
+        this.buildings = buildings;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "Status-Http-" + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/metrics", exchange -> respond(exchange, "text/plain; version=0.0.4", this::prometheus));
+        server.createContext("/status", exchange -> respond(exchange, "application/json", this::json));
+    }
+
+    void start() {
+        server.start();
+    }
+
+    void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private void respond(HttpExchange exchange, String contentType, Function<StringBuilder, StringBuilder> body)
+            throws IOException {
+        try {
+            if (!exchange.getRequestMethod().equals("GET")) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] bytes = body.apply(new StringBuilder(4096)).toString().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", contentType + "; charset=utf-8");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    // Prometheus
+
+    private StringBuilder prometheus(StringBuilder out) {
+        // Семейство метрик печатается одним блоком по всем зданиям
+        Map<String, Map<String, Long>> families = new TreeMap<>();
+        Map<String, Boolean> gauges = new TreeMap<>();
+        for (ElevatorSystemSimulation building : buildings) {
+            MetricsRegistry metrics = building.getMetrics();
+            for (Map.Entry<String, Long> entry : metrics.snapshot().entrySet()) {
+                families.computeIfAbsent(entry.getKey(), name -> new TreeMap<>())
+                        .put(name(building), entry.getValue());
+                gauges.put(entry.getKey(), metrics.isGauge(entry.getKey()));
+            }
+        }
+        for (Map.Entry<String, Map<String, Long>> family : families.entrySet()) {
+            boolean gauge = gauges.get(family.getKey());
+            String metric = metricName(family.getKey()) + (gauge ? "" : "_total");
+            out.append("# TYPE ").append(metric).append(gauge ? " gauge\n" : " counter\n");
+            for (Map.Entry<String, Long> sample : family.getValue().entrySet()) {
+                out.append(metric).append("{building=\"").append(sample.getKey()).append("\"} ")
+                        .append(sample.getValue()).append('\n');
+            }
+        }
+
+        out.append("# TYPE elevator_dispatch_queue_depth gauge\n");
+        for (ElevatorSystemSimulation building : buildings) {
+            ZonedDispatcher dispatcher = building.getDispatcher();
+            for (int zone = 0; zone < dispatcher.getZoneCount(); zone++) {
+                out.append("elevator_dispatch_queue_depth{building=\"").append(name(building))
+                        .append("\",zone=\"").append(zone + 1).append("\"} ")
+                        .append(dispatcher.getZone(zone).getQueueDepth()).append('\n');
+            }
+        }
+        out.append("# TYPE elevator_hall_calls_active gauge\n");
+        for (ElevatorSystemSimulation building : buildings) {
+            out.append("elevator_hall_calls_active{building=\"").append(name(building)).append("\"} ")
+                    .append(building.getDispatcher().getHallCalls().getActiveCount()).append('\n');
+        }
+
+        summary(out, "elevator_hall_wait_milliseconds", ElevatorSystemSimulation::getWaitTimes);
+        summary(out, "elevator_journey_milliseconds", ElevatorSystemSimulation::getJourneyTimes);
+
+        out.append("# TYPE elevator_car_floor gauge\n");
+        carGauge(out, "elevator_car_floor", ElevatorSnapshot::floor);
+        out.append("# TYPE elevator_car_passengers gauge\n");
+        carGauge(out, "elevator_car_passengers", ElevatorSnapshot::passengers);
+        out.append("# TYPE elevator_car_stops gauge\n");
+        carGauge(out, "elevator_car_stops", ElevatorSnapshot::stops);
+        out.append("# TYPE elevator_car_state gauge\n");
+        for (ElevatorSystemSimulation building : buildings) {
+            for (Elevator elevator : building.getElevators()) {
+                long state = elevator.getSnapshot();
+                carLabels(out.append("elevator_car_state"), building, elevator)
+                        .append(",status=\"").append(ElevatorSnapshot.status(state))
+                        .append("\",direction=\"").append(ElevatorSnapshot.direction(state)).append("\"} 1\n");
+            }
+        }
+        return out;
+    }
+
+    private void summary(StringBuilder out, String metric,
+            Function<ElevatorSystemSimulation, LatencyHistogram> histogram) {
+        out.append("# TYPE ").append(metric).append(" summary\n");
+        for (ElevatorSystemSimulation building : buildings) {
+            LatencyHistogram times = histogram.apply(building);
+            for (double quantile : QUANTILES) {
+                out.append(metric).append("{building=\"").append(name(building)).append("\",quantile=\"")
+                        .append(quantile).append("\"} ").append(times.getPercentile(quantile)).append('\n');
+            }
+            out.append(metric).append("_sum{building=\"").append(name(building)).append("\"} ")
+                    .append(times.getSum()).append('\n');
+            out.append(metric).append("_count{building=\"").append(name(building)).append("\"} ")
+                    .append(times.getCount()).append('\n');
+        }
+    }
+
+    /**
+     * Значение из снимка лифта
+     */
+    private interface SnapshotField {
+        int get(long state);
+    }
+
+    private void carGauge(StringBuilder out, String metric, SnapshotField field) {
+        for (ElevatorSystemSimulation building : buildings) {
+            for (Elevator elevator : building.getElevators()) {
+                carLabels(out.append(metric), building, elevator).append("} ")
+                        .append(field.get(elevator.getSnapshot())).append('\n');
+            }
+        }
+    }
+
+    private static StringBuilder carLabels(StringBuilder out, ElevatorSystemSimulation building, Elevator elevator) {
+        return out.append("{building=\"").append(name(building)).append("\",car=\"").append(elevator.getId() + 1)
+                .append('"');
+    }
+
+    /**
+     * elevator.floorsTravelled -> elevator_floors_travelled, остальные получают префикс elevator_
+     */
+    static String metricName(String name) {
+        StringBuilder out = new StringBuilder(name.length() + 16);
+        if (!name.startsWith("elevator.")) {
+            out.append("elevator_");
+        }
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isUpperCase(c)) {
+                out.append('_').append(Character.toLowerCase(c));
+            } else if (Character.isLetterOrDigit(c)) {
+                out.append(c);
+            } else {
+                out.append('_');
+            }
+        }
+        return out.toString();
+    }
+
+    // JSON
+
+    private StringBuilder json(StringBuilder out) {
+        out.append("{\"buildings\":[");
+        for (int b = 0; b < buildings.size(); b++) {
+            ElevatorSystemSimulation building = buildings.get(b);
+            ZonedDispatcher dispatcher = building.getDispatcher();
+            if (b > 0) {
+                out.append(',');
+            }
+            out.append("{\"name\":\"").append(name(building)).append('"')
+                    .append(",\"running\":").append(building.isRunning())
+                    .append(",\"floors\":").append(building.getMaxFloor())
+                    .append(",\"activeHallCalls\":").append(dispatcher.getHallCalls().getActiveCount());
+
+            out.append(",\"zones\":[");
+            for (int zone = 0; zone < dispatcher.getZoneCount(); zone++) {
+                out.append(zone > 0 ? "," : "").append("{\"zone\":").append(zone + 1)
+                        .append(",\"queueDepth\":").append(dispatcher.getZone(zone).getQueueDepth()).append('}');
+            }
+
+            out.append("],\"elevators\":[");
+            List<Elevator> elevators = building.getElevators();
+            for (int i = 0; i < elevators.size(); i++) {
+                Elevator elevator = elevators.get(i);
+                long state = elevator.getSnapshot();
+                out.append(i > 0 ? "," : "").append("{\"id\":").append(elevator.getId() + 1)
+                        .append(",\"floor\":").append(ElevatorSnapshot.floor(state))
+                        .append(",\"direction\":\"").append(ElevatorSnapshot.direction(state)).append('"')
+                        .append(",\"status\":\"").append(ElevatorSnapshot.status(state)).append('"')
+                        .append(",\"passengers\":").append(ElevatorSnapshot.passengers(state))
+                        .append(",\"capacity\":").append(elevator.getMaxCapacity())
+                        .append(",\"stops\":").append(ElevatorSnapshot.stops(state)).append('}');
+            }
+
+            out.append("],\"metrics\":{");
+            boolean first = true;
+            for (Map.Entry<String, Long> entry : building.getMetrics().snapshot().entrySet()) {
+                out.append(first ? "" : ",").append('"').append(entry.getKey()).append("\":")
+                        .append(entry.getValue());
+                first = false;
+            }
+            out.append('}');
+            jsonHistogram(out.append(",\"hallWaitMillis\":"), building.getWaitTimes());
+            jsonHistogram(out.append(",\"journeyMillis\":"), building.getJourneyTimes());
+            out.append('}');
+        }
+        return out.append("]}\n");
+    }
+
+    private static void jsonHistogram(StringBuilder out, LatencyHistogram histogram) {
+        out.append("{\"count\":").append(histogram.getCount())
+                .append(",\"p50\":").append(histogram.getPercentile(0.5))
+                .append(",\"p90\":").append(histogram.getPercentile(0.9))
+                .append(",\"p99\":").append(histogram.getPercentile(0.99))
+                .append(",\"max\":").append(histogram.getMax()).append('}');
+    }
+
+    /**
+     * Имя здания: имя его логгера (в кампусе - B1, B2, ...) или building
+     */
+    private static String name(ElevatorSystemSimulation building) {
+        String name = building.getLogger().getName();
+        return name == null ? "building" : name;
+    }
+}
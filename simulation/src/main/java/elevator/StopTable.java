@@ -0,0 +1,133 @@
+package elevator;
+
+import java.util.Arrays;
+
+/**
+ * Таблица остановок лифта: битовое множество этажей на массиве long.
+ * Бит с номером этажа установлен, если на этом этаже нужно остановиться.
+ * Не создает объектов при добавлении и проверке, размер хранится отдельно,
+ * поиск ближайшей остановки выше/ниже идет по словам по 64 этажа.
+ * Класс не потокобезопасен: доступ защищается замком лифта.
+ */
+final class StopTable {
+    private final long[] words; // Биты этажей 0..maxFloor (нулевой бит не используется)
+    private final int maxFloor; // Максимальный этаж
+    private int size = 0; // Количество отмеченных этажей
+
+    public StopTable(int maxFloor) {
+        if (maxFloor < 1) {
+            throw new IllegalArgumentException("Building must have at least one floor: " + maxFloor);
+        }
+        this.maxFloor = maxFloor;
+        this.words = new long[(maxFloor >> 6) + 1];
+    }
+
+    private void checkFloor(int floor) {
+        if (floor < 1 || floor > maxFloor) {
+            throw new IllegalArgumentException("Invalid floor " + floor + " (must be 1-" + maxFloor + ")");
+        }
+    }
+
+    public boolean contains(int floor) {
+        return floor >= 1 && floor <= maxFloor && (words[floor >> 6] & (1L << floor)) != 0;
+    }
+
+    /**
+     * @return true если этаж не был отмечен раньше
+     */
+    public boolean add(int floor) {
+        checkFloor(floor);
+        long bit = 1L << floor;
+        long word = words[floor >> 6];
+        if ((word & bit) != 0) {
+            return false;
+        }
+        words[floor >> 6] = word | bit;
+        size++;
+        return true;
+    }
+
+    /**
+     * @return true если этаж был отмечен
+     */
+    public boolean remove(int floor) {
+        if (!contains(floor)) {
+            return false;
+        }
+        words[floor >> 6] &= ~(1L << floor);
+        size--;
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(words, 0L);
+        size = 0;
+    }
+
+    /**
+     * Число этажей, отмеченных хотя бы в одной из таблиц (таблицы одного здания):
+     * этаж из нескольких таблиц считается один раз
+     */
+    static int unionSize(StopTable first, StopTable second, StopTable third) {
+        int count = 0;
+        for (int i = 0; i < first.words.length; i++) {
+            count += Long.bitCount(first.words[i] | second.words[i] | third.words[i]);
+        }
+        return count;
+    }
+
+    /**
+     * Ближайший отмеченный этаж строго выше заданного
+     *
+     * @return номер этажа или -1, если выше остановок нет
+     */
+    public int nextAbove(int floor) {
+        int from = floor + 1;
+        if (from > maxFloor) {
+            return -1;
+        }
+        from = Math.max(from, 1);
+        int index = from >> 6;
+        long word = words[index] & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                return (index << 6) + Long.numberOfTrailingZeros(word);
+            }
+            if (++index == words.length) {
+                return -1;
+            }
+            word = words[index];
+        }
+    }
+
+    /**
+     * Ближайший отмеченный этаж строго ниже заданного
+     *
+     * @return номер этажа или -1, если ниже остановок нет
+     */
+    public int nextBelow(int floor) {
+        int from = Math.min(floor - 1, maxFloor);
+        if (from < 1) {
+            return -1;
+        }
+        int index = from >> 6;
+        long word = words[index] & (-1L >>> (63 - (from & 63)));
+        while (true) {
+            if (word != 0) {
+                return (index << 6) + 63 - Long.numberOfLeadingZeros(word);
+            }
+            if (--index < 0) {
+                return -1;
+            }
+            word = words[index];
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package elevator;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Какими потоками исполняются циклы лифтов, диспетчера и генератора запросов.
+ * PLATFORM - обычный поток ОС на каждый лифт (как раньше).
+ * VIRTUAL - виртуальные потоки (Java 21+): тысячи лифтов без тысяч потоков ОС.
+ * SCHEDULED - без потока на лифт: шаги лифтов выполняет общий небольшой пул
+ * по сроку (см. ElevatorScheduler), простаивающие лифты не просыпаются.
+ * Диспетчер и генератор запросов в режиме SCHEDULED работают на обычных потоках.
+ *
+ * Лифты ждут работу и паузы через ReentrantLock/Condition и sleep.
+ * Отсутствие закрепления виртуальных потоков за носителями на Java 21
+ * не проверялось (-Djdk.tracePinnedThreads=full): вывод в консоль и
+ * synchronized-методы Logger остаются возможными местами закрепления.
+ * Сборка идет под Java 17, поэтому виртуальные потоки создаются через
+ * reflection; на старой JVM режим VIRTUAL откатывается на обычные потоки.
+ */
+enum ThreadMode {
+    PLATFORM,
+    VIRTUAL,
+    SCHEDULED;
+
+    /**
+     * Режим, который реально будет использован в этой JVM:
+     * VIRTUAL без поддержки виртуальных потоков заменяется на PLATFORM
+     */
+    ThreadMode effective() {
+        if (this == VIRTUAL && !virtualThreadsSupported()) {
+            Logger.getInstance().logError("Virtual threads are not available on Java "
+                    + Runtime.version().feature() + ", using platform threads");
+            return PLATFORM;
+        }
+        return this;
+    }
+
+    /**
+     * Фабрика потоков с именами prefix-0, prefix-1, ...
+     */
+    ThreadFactory newThreadFactory(String prefix) {
+        if (this == VIRTUAL) {
+            ThreadFactory factory = virtualThreadFactory(prefix);
+            if (factory != null) {
+                return factory;
+            }
+        }
+        AtomicInteger counter = new AtomicInteger();
+        return task -> new Thread(task, prefix + "-" + counter.getAndIncrement());
+    }
+
+    /**
+     * Есть ли в текущей JVM виртуальные потоки
+     */
+    static boolean virtualThreadsSupported() {
+        return virtualThreadFactory("probe") != null;
+    }
+
+    /**
+     * Thread.ofVirtual().name(prefix + "-", 0).factory() через reflection
+     *
+     * @return null если JVM не поддерживает виртуальные потоки
+     */
+    private static ThreadFactory virtualThreadFactory(String prefix) {
+        try {
+            Method ofVirtual = Thread.class.getMethod("ofVirtual");
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = ofVirtual.invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class)
+                    .invoke(builder, prefix + "-", 0L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package elevator;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Генератор прихода пассажиров по профилю: неоднородный пуассоновский поток
+ * (экспоненциальные интервалы с интенсивностью текущего периода) и поездки
+ * из матрицы периода. Приходы выдаются по одному по возрастанию времени
+ * (next, затем time/origin/destination) без создания объектов, поэтому
+ * миллионы пассажиров за сутки не требуют ни памяти, ни потока со сном
+ * на каждого пассажира: потребитель сам решает, когда забрать очередные приходы.
+ * Не потокобезопасен.
+ */
+final class TrafficGenerator {
+    private static final double MILLIS_PER_HOUR = 60.0 * 60 * 1000;
+
+    private final List<TrafficProfile.Period> periods;
+    private final SplittableRandom arrivals; // Интервалы между приходами
+    private final SplittableRandom trips; // Выбор поездки
+    private int period = 0; // Текущий период профиля
+    private double time; // Время текущего прихода (дробное, чтобы не копить ошибку округления)
+    private int origin;
+    private int destination;
+    private long generated = 0;
+
+    TrafficGenerator(TrafficProfile profile, SplittableRandom arrivals, SplittableRandom trips) {
+        this(profile, 0, arrivals, trips);
+    }
+
+    /**
+     * @param startMillis - с какого момента профиля начинать (например, 7:00 для утреннего пика)
+     */
+    TrafficGenerator(TrafficProfile profile, long startMillis, SplittableRandom arrivals, SplittableRandom trips) {
+        this.periods = profile.getPeriods();
+        this.arrivals = arrivals;
+        this.trips = trips;
+        this.time = startMillis;
+    }
+
+    /**
+     * Переход к следующему приходу
+     *
+     * @return false, если профиль закончился
+     */
+    boolean next() {
+        while (period < periods.size()) {
+            TrafficProfile.Period current = periods.get(period);
+            if (time < current.startMillis) {
+                time = current.startMillis;
+            }
+            if (time < current.endMillis && current.passengersPerHour > 0) {
+                // Экспоненциальный интервал; поток без памяти, поэтому на границе периода
+                // достаточно начать отсчет заново с интенсивностью следующего периода
+                double gap = -Math.log(1.0 - arrivals.nextDouble()) * MILLIS_PER_HOUR / current.passengersPerHour;
+                if (time + gap < current.endMillis) {
+                    time += gap;
+                    int trip = current.trips.sample(trips);
+                    origin = current.trips.origin(trip);
+                    destination = current.trips.destination(trip);
+                    generated++;
+                    return true;
+                }
+            }
+            time = Math.max(time, current.endMillis);
+            period++;
+        }
+        return false;
+    }
+
+    /**
+     * Время текущего прихода от начала профиля
+     */
+    long time() {
+        return (long) time;
+    }
+
+    int origin() {
+        return origin;
+    }
+
+    int destination() {
+        return destination;
+    }
+
+    long getGeneratedCount() {
+        return generated;
+    }
+}
@@ -0,0 +1,185 @@
+package elevator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Профиль пассажиропотока: последовательные периоды суток, в каждом своя
+ * интенсивность прихода пассажиров (пуассоновский поток) и своя матрица поездок.
+ * Время - миллисекунды симуляции от начала профиля (для суточных профилей - от полуночи).
+ */
+final class TrafficProfile {
+    private static final long HOUR = 60L * 60 * 1000;
+    private static final long MINUTE = 60L * 1000;
+
+    /**
+     * Период с постоянной интенсивностью
+     */
+    static final class Period {
+        final long startMillis;
+        final long endMillis;
+        final double passengersPerHour;
+        final OriginDestinationMatrix trips;
+
+        Period(long startMillis, long endMillis, double passengersPerHour, OriginDestinationMatrix trips) {
+            if (endMillis <= startMillis) {
+                throw new IllegalArgumentException("Empty period: " + startMillis + " - " + endMillis);
+            }
+            if (passengersPerHour < 0) {
+                throw new IllegalArgumentException("Negative arrival rate: " + passengersPerHour);
+            }
+            this.startMillis = startMillis;
+            this.endMillis = endMillis;
+            this.passengersPerHour = passengersPerHour;
+            this.trips = trips;
+        }
+    }
+
+    private final String name;
+    private final int maxFloor;
+    private final List<Period> periods;
+
+    /**
+     * @param periods - периоды по возрастанию времени, без пересечений
+     */
+    TrafficProfile(String name, int maxFloor, List<Period> periods) {
+        if (periods.isEmpty()) {
+            throw new IllegalArgumentException("Profile has no periods");
+        }
+        for (int i = 0; i < periods.size(); i++) {
+            Period period = periods.get(i);
+            if (period.trips.getMaxFloor() != maxFloor) {
+                throw new IllegalArgumentException("Period " + i + " is for " + period.trips.getMaxFloor()
+                        + " floors, profile for " + maxFloor);
+            }
+            if (i > 0 && period.startMillis < periods.get(i - 1).endMillis) {
+                throw new IllegalArgumentException("Period " + i + " overlaps the previous one");
+            }
+        }
+        this.name = name;
+        this.maxFloor = maxFloor;
+        this.periods = Collections.unmodifiableList(new ArrayList<>(periods));
+    }
+
+    /**
+     * Рабочие сутки офисного здания: утренний подъем, поездки между этажами,
+     * обед, вечерний спуск и слабый поток ночью
+     *
+     * @param peakPassengersPerHour - интенсивность в часы пик
+     */
+    static TrafficProfile officeDay(int maxFloor, double peakPassengersPerHour) {
+        double peak = peakPassengersPerHour;
+        List<Period> periods = new ArrayList<>();
+        periods.add(period(maxFloor, 0, 7 * HOUR, 0.02 * peak, 0.3, 0.3, 0.4));
+        periods.add(period(maxFloor, 7 * HOUR, 7 * HOUR + 30 * MINUTE, 0.4 * peak, 0.8, 0.1, 0.1));
+        periods.add(period(maxFloor, 7 * HOUR + 30 * MINUTE, 9 * HOUR + 30 * MINUTE, peak, 0.85, 0.05, 0.1));
+        periods.add(period(maxFloor, 9 * HOUR + 30 * MINUTE, 11 * HOUR + 30 * MINUTE, 0.3 * peak, 0.15, 0.15, 0.7));
+        periods.add(period(maxFloor, 11 * HOUR + 30 * MINUTE, 13 * HOUR + 30 * MINUTE, 0.6 * peak, 0.45, 0.45, 0.1));
+        periods.add(period(maxFloor, 13 * HOUR + 30 * MINUTE, 16 * HOUR + 30 * MINUTE, 0.3 * peak, 0.15, 0.15, 0.7));
+        periods.add(period(maxFloor, 16 * HOUR + 30 * MINUTE, 18 * HOUR + 30 * MINUTE, peak, 0.05, 0.85, 0.1));
+        periods.add(period(maxFloor, 18 * HOUR + 30 * MINUTE, 24 * HOUR, 0.05 * peak, 0.1, 0.5, 0.4));
+        return new TrafficProfile("office", maxFloor, periods);
+    }
+
+    /**
+     * Один стандартный поток с постоянной интенсивностью
+     *
+     * @param name - up-peak, down-peak, lunch или interfloor
+     */
+    static TrafficProfile constant(String name, int maxFloor, double passengersPerHour, long durationMillis) {
+        double up;
+        double down;
+        double interfloor;
+        switch (name) {
+            case "up-peak":
+                up = 0.85;
+                down = 0.05;
+                interfloor = 0.1;
+                break;
+            case "down-peak":
+                up = 0.05;
+                down = 0.85;
+                interfloor = 0.1;
+                break;
+            case "lunch":
+                up = 0.45;
+                down = 0.45;
+                interfloor = 0.1;
+                break;
+            case "interfloor":
+                up = 0.1;
+                down = 0.1;
+                interfloor = 0.8;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown traffic pattern: " + name);
+        }
+        return new TrafficProfile(name, maxFloor, Collections.singletonList(
+                period(maxFloor, 0, durationMillis, passengersPerHour, up, down, interfloor)));
+    }
+
+    /**
+     * Профиль по имени: office (сутки) или один из потоков на заданное время
+     */
+    static TrafficProfile named(String name, int maxFloor, double peakPassengersPerHour, long durationMillis) {
+        if (name.equals("office")) {
+            return officeDay(maxFloor, peakPassengersPerHour);
+        }
+        return constant(name, maxFloor, peakPassengersPerHour, durationMillis);
+    }
+
+    private static Period period(int maxFloor, long start, long end, double perHour,
+            double up, double down, double interfloor) {
+        return new Period(start, end, perHour, OriginDestinationMatrix.office(maxFloor, up, down, interfloor));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxFloor() {
+        return maxFloor;
+    }
+
+    List<Period> getPeriods() {
+        return periods;
+    }
+
+    /**
+     * Конец последнего периода
+     */
+    public long getEndMillis() {
+        return periods.get(periods.size() - 1).endMillis;
+    }
+
+    /**
+     * Ожидаемое число пассажиров, приходящих на каждый этаж за весь профиль
+     * (индексы с единицы) - статистика вызовов для разбиения на зоны
+     */
+    public long[] expectedOriginsPerFloor() {
+        double[] origins = new double[maxFloor + 1];
+        for (Period period : periods) {
+            double passengers = period.passengersPerHour * (period.endMillis - period.startMillis) / HOUR;
+            for (int floor = 1; floor <= maxFloor; floor++) {
+                origins[floor] += passengers * period.trips.originShare(floor);
+            }
+        }
+        long[] rounded = new long[maxFloor + 1];
+        for (int floor = 1; floor <= maxFloor; floor++) {
+            rounded[floor] = Math.round(origins[floor]);
+        }
+        return rounded;
+    }
+
+    /**
+     * Ожидаемое число пассажиров за весь профиль
+     */
+    public double expectedPassengers() {
+        double total = 0;
+        for (Period period : periods) {
+            total += period.passengersPerHour * (period.endMillis - period.startMillis) / HOUR;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,221 @@
+package elevator;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Пассажиры, ожидающие лифт на этажах: для каждой пары (этаж, направление) -
+ * очередь из этажей назначения и времени прихода. Лифт, открывший двери,
+ * забирает пассажиров своего направления, сколько помещается, и получает
+ * их этажи назначения как вызовы из кабины.
+ * Очереди - кольцевые буферы на массивах примитивов, поэтому приход
+ * пассажира не создает объектов (кроме редкого роста буфера).
+ *
+ * Порядок замков: замок лифта, затем замок очередей. Если после посадки
+ * на этаже остались пассажиры, а вызов уже снят, лифт запоминает это под
+ * своим замком и подает вызов заново через обработчик после снятия замка
+ * (Elevator.step). Обработчик задается режимом работы и только ставит вызов
+ * в очередь: диспетчера, общего пула или событийную.
+ */
+final class WaitingPassengers {
+    /**
+     * Куда подать вызов с этажа заново
+     */
+    interface CallSink {
+        void call(int floor, Direction direction);
+    }
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private final int maxFloor;
+    private final int[][] destinations; // [этаж * 2 + направление] - этажи назначения
+    private final long[][] arrivals; // [этаж * 2 + направление] - время прихода на этаж
+    private final int[] head; // Начало очереди в кольцевом буфере
+    private final int[] size; // Длина очереди
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile CallSink reissueHandler;
+
+    private final LongAdder arrived = new LongAdder(); // Пришли на этажи
+    private final LongAdder boarded = new LongAdder(); // Сели в лифт
+    private final LongAdder delivered = new LongAdder(); // Доехали до этажа назначения
+    private final LongAdder waitMillis = new LongAdder(); // Суммарное ожидание до посадки
+    private final LongAccumulator maxWaitMillis = new LongAccumulator(Math::max, 0);
+    private final LongAdder journeyMillis = new LongAdder(); // Суммарное время от прихода до выхода
+    private final LongAccumulator maxJourneyMillis = new LongAccumulator(Math::max, 0);
+
+    WaitingPassengers(int maxFloor) {
+        this.maxFloor = maxFloor;
+        int slots = (maxFloor + 1) * 2;
+        this.destinations = new int[slots][];
+        this.arrivals = new long[slots][];
+        this.head = new int[slots];
+        this.size = new int[slots];
+    }
+
+    void setReissueHandler(CallSink handler) {
+        this.reissueHandler = handler;
+    }
+
+    /**
+     * Направление, в котором поедет пассажир
+     */
+    static Direction directionOf(int origin, int destination) {
+        return destination > origin ? Direction.UP : Direction.DOWN;
+    }
+
+    /**
+     * Пассажир пришел на этаж (вызов лифта подает вызывающий)
+     */
+    void arrive(int origin, int destination, long now) {
+        if (origin < 1 || origin > maxFloor || destination < 1 || destination > maxFloor || origin == destination) {
+            throw new IllegalArgumentException("Invalid trip " + origin + " -> " + destination);
+        }
+        int slot = slot(origin, directionOf(origin, destination));
+        lock.lock();
+        try {
+            int n = size[slot];
+            int[] dest = destinations[slot];
+            if (dest == null || n == dest.length) {
+                grow(slot);
+                dest = destinations[slot];
+            }
+            int tail = (head[slot] + n) % dest.length;
+            dest[tail] = destination;
+            arrivals[slot][tail] = now;
+            size[slot] = n + 1;
+        } finally {
+            lock.unlock();
+        }
+        arrived.increment();
+    }
+
+    /**
+     * Посадка в лифт: пассажиры дописываются в массивы пассажиров кабины
+     *
+     * @param riders   - сколько пассажиров уже записано в массивах кабины
+     * @param capacity - до скольких можно заполнить массивы
+     * @return новое число пассажиров в массивах кабины
+     */
+    int board(int floor, Direction direction, int[] riderDestination, long[] riderArrival,
+            int riders, int capacity, long now) {
+        int slot = slot(floor, direction);
+        lock.lock();
+        try {
+            int[] dest = destinations[slot];
+            long[] arrival = arrivals[slot];
+            while (size[slot] > 0 && riders < capacity) {
+                int first = head[slot];
+                riderDestination[riders] = dest[first];
+                riderArrival[riders] = arrival[first];
+                long wait = Math.max(0, now - arrival[first]);
+                waitMillis.add(wait);
+                maxWaitMillis.accumulate(wait);
+                boarded.increment();
+                riders++;
+                head[slot] = (first + 1) % dest.length;
+                size[slot]--;
+            }
+        } finally {
+            lock.unlock();
+        }
+        return riders;
+    }
+
+    /**
+     * Пассажир вышел на этаже назначения
+     */
+    void deliver(long arrivalTime, long now) {
+        long journey = Math.max(0, now - arrivalTime);
+        delivered.increment();
+        journeyMillis.add(journey);
+        maxJourneyMillis.accumulate(journey);
+    }
+
+    boolean hasWaiting(int floor, Direction direction) {
+        int slot = slot(floor, direction);
+        lock.lock();
+        try {
+            return size[slot] > 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Повторная подача вызова для оставшихся на этаже пассажиров
+     */
+    void reissue(int floor, Direction direction) {
+        CallSink handler = reissueHandler;
+        if (handler != null) {
+            handler.call(floor, direction);
+        }
+    }
+
+    public long getArrivedCount() {
+        return arrived.sum();
+    }
+
+    public long getBoardedCount() {
+        return boarded.sum();
+    }
+
+    public long getDeliveredCount() {
+        return delivered.sum();
+    }
+
+    public long getAverageWaitMillis() {
+        long count = boarded.sum();
+        return count == 0 ? 0 : waitMillis.sum() / count;
+    }
+
+    public long getMaxWaitMillis() {
+        return maxWaitMillis.get();
+    }
+
+    public long getAverageJourneyMillis() {
+        long count = delivered.sum();
+        return count == 0 ? 0 : journeyMillis.sum() / count;
+    }
+
+    public long getMaxJourneyMillis() {
+        return maxJourneyMillis.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("passengers arrived: %d, boarded: %d, delivered: %d, "
+                + "wait avg/max: %d/%d ms, journey avg/max: %d/%d ms",
+                getArrivedCount(), getBoardedCount(), getDeliveredCount(),
+                getAverageWaitMillis(), getMaxWaitMillis(), getAverageJourneyMillis(), getMaxJourneyMillis());
+    }
+
+    private void grow(int slot) {
+        int[] oldDest = destinations[slot];
+        long[] oldArrival = arrivals[slot];
+        int capacity = oldDest == null ? INITIAL_CAPACITY : oldDest.length * 2;
+        int[] dest = new int[capacity];
+        long[] arrival = new long[capacity];
+        int n = size[slot];
+        for (int i = 0; i < n; i++) {
+            int from = (head[slot] + i) % oldDest.length;
+            dest[i] = oldDest[from];
+            arrival[i] = oldArrival[from];
+        }
+        destinations[slot] = dest;
+        arrivals[slot] = arrival;
+        head[slot] = 0;
+    }
+
+    /**
+     * Та же нумерация, что в HallCallTable: с крайних этажей - одно направление
+     */
+    private int slot(int floor, Direction direction) {
+        if (floor == maxFloor) {
+            direction = Direction.DOWN;
+        } else if (floor == 1) {
+            direction = Direction.UP;
+        }
+        return floor * 2 + (direction == Direction.UP ? 0 : 1);
+    }
+}
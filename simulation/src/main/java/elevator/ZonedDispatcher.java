@@ -0,0 +1,378 @@
+package elevator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Диспетчеризация по зонам этажей для высоких зданий.
+ * Здание делится на зоны (непрерывные диапазоны этажей), у каждой зоны своя
+ * группа лифтов и свой Dispatcher со своей очередью и потоком, поэтому
+ * пропускная способность назначения растет с числом ядер.
+ * Лифты зоны по-прежнему могут ехать на любой этаж (вызовы из кабины),
+ * зона определяет только, какая группа обслуживает вызовы с ее этажей.
+ * Если в зоне нет лифта, способного принять вызов (все заполнены), вызов
+ * передается ближайшей зоне со свободными местами; переданный вызов
+ * дальше не пересылается, чтобы он не ходил по кругу.
+ * С одной зоной ведет себя как прежний одиночный диспетчер.
+ */
+final class ZonedDispatcher {
+    private final List<Elevator> elevators; // Все лифты здания
+    private final int maxFloor;
+    private final int[] zoneFirstFloor; // Нижний этаж каждой зоны
+    private final int[] zoneOfFloor; // Номер зоны для каждого этажа (индексы с единицы)
+    private final List<Dispatcher> zones; // Диспетчеры зон
+    private final List<List<Elevator>> zoneElevators; // Группы лифтов зон
+    private final HallCallTable hallCalls; // Активные вызовы здания, общие для всех зон
+    private final List<Thread> threads = new ArrayList<>();
+    private final Logger logger;
+    private LongAdder droppedCounter = new LongAdder(); // Вызовы, которые не приняла ни одна зона
+    private LongAdder handoffCounter = new LongAdder(); // Вызовы, переданные в соседнюю зону
+
+    /**
+     * @param zoneFirstFloors - нижние этажи зон по возрастанию, первый равен 1
+     * @param zoneSizes       - сколько лифтов в каждой зоне (лифты раздаются по порядку)
+     */
+    ZonedDispatcher(List<Elevator> elevators, int maxFloor, SimulationClock clock, Logger logger,
+            int[] zoneFirstFloors, int[] zoneSizes) {
+        if (zoneFirstFloors.length == 0 || zoneFirstFloors[0] != 1) {
+            throw new IllegalArgumentException("First zone must start at floor 1");
+        }
+        if (zoneSizes.length != zoneFirstFloors.length) {
+            throw new IllegalArgumentException("Zone sizes do not match zones: "
+                    + zoneSizes.length + " != " + zoneFirstFloors.length);
+        }
+        this.elevators = elevators;
+        this.maxFloor = maxFloor;
+        this.logger = logger;
+        this.hallCalls = new HallCallTable(maxFloor);
+        this.zoneFirstFloor = zoneFirstFloors.clone();
+        this.zoneOfFloor = new int[maxFloor + 1];
+        for (int zone = 0; zone < zoneFirstFloors.length; zone++) {
+            int last = zone + 1 < zoneFirstFloors.length ? zoneFirstFloors[zone + 1] - 1 : maxFloor;
+            if (last < zoneFirstFloors[zone]) {
+                throw new IllegalArgumentException("Zone " + zone + " is empty or out of order");
+            }
+            for (int floor = zoneFirstFloors[zone]; floor <= last; floor++) {
+                zoneOfFloor[floor] = zone;
+            }
+        }
+
+        this.zones = new ArrayList<>(zoneFirstFloors.length);
+        this.zoneElevators = new ArrayList<>(zoneFirstFloors.length);
+        int next = 0;
+        for (int zone = 0; zone < zoneFirstFloors.length; zone++) {
+            if (zoneSizes[zone] < 1) {
+                throw new IllegalArgumentException("Zone " + zone + " has no elevators");
+            }
+            List<Elevator> group = Collections.unmodifiableList(
+                    new ArrayList<>(elevators.subList(next, next + zoneSizes[zone])));
+            next += zoneSizes[zone];
+            Dispatcher dispatcher = new Dispatcher(group, maxFloor, clock, logger, hallCalls);
+            final int home = zone;
+            dispatcher.setOverflowHandler(request -> handOff(home, request));
+            zones.add(dispatcher);
+            zoneElevators.add(group);
+        }
+        if (next != elevators.size()) {
+            throw new IllegalArgumentException("Zones use " + next + " of " + elevators.size() + " elevators");
+        }
+        // Повторный вызов оставшихся пассажиров - диспетчеру зоны их этажа
+        hallCalls.getPassengers().setReissueHandler(this::addExternalRequest);
+    }
+
+    /**
+     * Равные по высоте зоны, лифты делятся поровну (остаток - нижним зонам)
+     */
+    static ZonedDispatcher evenZones(List<Elevator> elevators, int maxFloor, SimulationClock clock, Logger logger,
+            int zoneCount) {
+        int count = Math.max(1, Math.min(zoneCount, Math.min(maxFloor, elevators.size())));
+        int[] firstFloors = new int[count];
+        int[] sizes = new int[count];
+        for (int zone = 0; zone < count; zone++) {
+            firstFloors[zone] = 1 + (int) ((long) maxFloor * zone / count);
+            sizes[zone] = elevators.size() / count + (zone < elevators.size() % count ? 1 : 0);
+        }
+        return new ZonedDispatcher(elevators, maxFloor, clock, logger, firstFloors, sizes);
+    }
+
+    /**
+     * Зоны по статистике вызовов: границы делят вызовы поровну,
+     * лифты раздаются пропорционально доле вызовов зоны (минимум один на зону)
+     *
+     * @param callsPerFloor - число вызовов с каждого этажа (индексы с единицы)
+     */
+    static ZonedDispatcher fromTraffic(List<Elevator> elevators, int maxFloor, SimulationClock clock, Logger logger,
+            long[] callsPerFloor, int zoneCount) {
+        int count = Math.max(1, Math.min(zoneCount, Math.min(maxFloor, elevators.size())));
+        long total = 0;
+        for (int floor = 1; floor <= maxFloor; floor++) {
+            total += callsPerFloor[floor];
+        }
+        if (total == 0) {
+            return evenZones(elevators, maxFloor, clock, logger, count);
+        }
+
+        long[] prefix = new long[maxFloor + 1]; // Вызовы с этажей 1..floor
+        for (int floor = 1; floor <= maxFloor; floor++) {
+            prefix[floor] = prefix[floor - 1] + callsPerFloor[floor];
+        }
+
+        // Граница зоны z - первый этаж, ниже которого набрано z/count всех вызовов;
+        // каждой следующей зоне оставляем хотя бы по этажу
+        int[] firstFloors = new int[count];
+        long[] zoneCalls = new long[count];
+        firstFloors[0] = 1;
+        for (int z = 1; z < count; z++) {
+            long target = total * z / count;
+            int highest = maxFloor - (count - 1 - z);
+            int floor = firstFloors[z - 1] + 1;
+            while (floor < highest && prefix[floor - 1] < target) {
+                floor++;
+            }
+            firstFloors[z] = floor;
+        }
+        for (int z = 0; z < count; z++) {
+            int last = z + 1 < count ? firstFloors[z + 1] - 1 : maxFloor;
+            zoneCalls[z] = prefix[last] - prefix[firstFloors[z] - 1];
+        }
+
+        // Лифты: по одному на зону, остальные пропорционально вызовам
+        int[] sizes = new int[count];
+        int spare = elevators.size() - count;
+        int given = 0;
+        for (int z = 0; z < count; z++) {
+            sizes[z] = 1 + (int) (spare * zoneCalls[z] / total);
+            given += sizes[z];
+        }
+        for (int z = 0; given < elevators.size(); z = (z + 1) % count) {
+            sizes[z]++;
+            given++;
+        }
+        return new ZonedDispatcher(elevators, maxFloor, clock, logger, firstFloors, sizes);
+    }
+
+    HallCallTable getHallCalls() {
+        return hallCalls;
+    }
+
+    public int getZoneCount() {
+        return zones.size();
+    }
+
+    public int zoneOf(int floor) {
+        return zoneOfFloor[floor];
+    }
+
+    /**
+     * Нижний этаж зоны
+     */
+    public int getZoneFirstFloor(int zone) {
+        return zoneFirstFloor[zone];
+    }
+
+    /**
+     * Разбиение для лога: "1-12 x3, 13-40 x5" (этажи зоны и число лифтов)
+     */
+    String describeZones() {
+        StringBuilder out = new StringBuilder();
+        for (int zone = 0; zone < zones.size(); zone++) {
+            int last = zone + 1 < zones.size() ? zoneFirstFloor[zone + 1] - 1 : maxFloor;
+            out.append(zone > 0 ? ", " : "").append(zoneFirstFloor[zone]).append('-').append(last)
+                    .append(" x").append(zoneElevators.get(zone).size());
+        }
+        return out.toString();
+    }
+
+    public Dispatcher getZone(int zone) {
+        return zones.get(zone);
+    }
+
+    public List<Elevator> getZoneElevators(int zone) {
+        return zoneElevators.get(zone);
+    }
+
+    /**
+     * Подключение к реестру метрик здания (до запуска потоков)
+     */
+    void setMetrics(MetricsRegistry metrics) {
+        for (Dispatcher zone : zones) {
+            zone.setMetrics(metrics);
+        }
+        droppedCounter = metrics.counter("dispatch.dropped");
+        handoffCounter = metrics.counter("dispatch.handoffs");
+    }
+
+    /**
+     * Запуск потоков диспетчеров всех зон
+     */
+    void start(ThreadFactory threadFactory) {
+        for (Dispatcher zone : zones) {
+            Thread thread = threadFactory.newThread(zone);
+            threads.add(thread);
+            thread.start();
+        }
+    }
+
+    /**
+     * Сигнал остановки диспетчерам всех зон
+     */
+    void stop() {
+        for (Dispatcher zone : zones) {
+            zone.stop();
+        }
+    }
+
+    /**
+     * Ожидание завершения потоков диспетчеров
+     */
+    void join(long timeoutMillis) throws InterruptedException {
+        for (Thread thread : threads) {
+            thread.join(timeoutMillis);
+        }
+    }
+
+    /**
+     * Синхронное назначение накопившихся вызовов всех зон в вызывающем потоке
+     * (здание без потоков диспетчеров, например в общем пуле кампуса).
+     * Второй проход забирает вызовы, переданные в зоны, обработанные раньше;
+     * переданный вызов дальше не пересылается, поэтому двух проходов достаточно.
+     */
+    synchronized void dispatchPending() {
+        for (int pass = 0; pass < 2; pass++) {
+            for (Dispatcher zone : zones) {
+                zone.dispatchPending();
+            }
+        }
+    }
+
+    /**
+     * Число назначенных вызовов по всем зонам
+     */
+    public long getAssignedCount() {
+        long total = 0;
+        for (Dispatcher zone : zones) {
+            total += zone.getStats().getRequestCount();
+        }
+        return total;
+    }
+
+    /**
+     * Суммарное ожидание вызовов в очередях всех зон (мс времени симуляции)
+     */
+    public long getTotalLatencyMillis() {
+        long total = 0;
+        for (Dispatcher zone : zones) {
+            total += zone.getStats().getTotalLatencyMillis();
+        }
+        return total;
+    }
+
+    /**
+     * Повторные нажатия, поглощенные при приеме, по всем зонам
+     */
+    public long getCoalescedCount() {
+        long total = 0;
+        for (Dispatcher zone : zones) {
+            total += zone.getStats().getCoalescedCount();
+        }
+        return total;
+    }
+
+    public long getMaxLatencyMillis() {
+        long max = 0;
+        for (Dispatcher zone : zones) {
+            max = Math.max(max, zone.getStats().getMaxLatencyMillis());
+        }
+        return max;
+    }
+
+    public void setStrategy(DispatchStrategy strategy) {
+        for (Dispatcher zone : zones) {
+            zone.setStrategy(strategy);
+        }
+    }
+
+    /**
+     * Вызов с этажа уходит диспетчеру зоны этого этажа
+     */
+    public void addExternalRequest(int floor, Direction direction) {
+        if (floor < 1 || floor > maxFloor) {
+            logger.logError("Invalid floor number: {}", floor);
+            return;
+        }
+        zones.get(zoneOfFloor[floor]).addExternalRequest(floor, direction);
+    }
+
+    /**
+     * Прямой вызов лифта (для внутренних запросов) - лифт едет на любой этаж
+     */
+    public void callElevator(int elevatorId, int targetFloor) {
+        if (elevatorId >= 0 && elevatorId < elevators.size()) {
+            elevators.get(elevatorId).addInternalRequest(targetFloor);
+        }
+    }
+
+    /**
+     * Передача вызова, который зона не смогла назначить, ближайшей зоне со свободными местами
+     */
+    private void handOff(int fromZone, ExternalRequest request) {
+        int home = zoneOfFloor[request.getFloor()];
+        if (fromZone != home) {
+            // Вызов уже передан из своей зоны и здесь тоже не назначен
+            droppedCounter.increment();
+            logger.logError("No available elevators for call from floor {}", request.getFloor());
+            hallCalls.clear(request.getFloor(), request.getDirection());
+            return;
+        }
+        int target = -1;
+        int bestDistance = Integer.MAX_VALUE;
+        for (int zone = 0; zone < zones.size(); zone++) {
+            if (zone == home || !hasCapacity(zone)) {
+                continue;
+            }
+            int distance = Math.abs(zoneFirstFloor[zone] - zoneFirstFloor[home]);
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                target = zone;
+            }
+        }
+        if (target < 0) {
+            droppedCounter.increment();
+            logger.logError("No available elevators for call from floor {}", request.getFloor());
+            hallCalls.clear(request.getFloor(), request.getDirection());
+            return;
+        }
+        handoffCounter.increment();
+        logger.logDispatcher("Handing off call from floor {} to zone {}", request.getFloor(), target + 1);
+        zones.get(target).handOff(request);
+    }
+
+    private boolean hasCapacity(int zone) {
+        for (Elevator elevator : zoneElevators.get(zone)) {
+            if (elevator.canAcceptPassenger()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Сводная статистика по зонам
+     */
+    public String statsSummary() {
+        if (zones.size() == 1) {
+            return zones.get(0).getStats().toString();
+        }
+        StringBuilder out = new StringBuilder();
+        for (int zone = 0; zone < zones.size(); zone++) {
+            if (zone > 0) {
+                out.append("; ");
+            }
+            out.append("zone ").append(zone + 1).append(": ").append(zones.get(zone).getStats());
+        }
+        return out.toString();
+    }
+}
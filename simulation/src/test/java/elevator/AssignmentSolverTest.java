@@ -0,0 +1,78 @@
+package elevator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class AssignmentSolverTest {
+
+    @Test
+    void matchesBruteForceOnRandomMatrices() {
+        AssignmentSolver solver = new AssignmentSolver();
+        SplittableRandom random = new SplittableRandom(7);
+        for (int trial = 0; trial < 3000; trial++) {
+            int rows = 1 + random.nextInt(5);
+            int cols = rows + random.nextInt(3);
+            int[][] cost = solver.matrix(rows, cols);
+            for (int i = 0; i < rows; i++) {
+                for (int j = 0; j < cols; j++) {
+                    // Примерно каждая пятая пара недопустима, как заполненный лифт
+                    cost[i][j] = random.nextInt(5) == 0 ? AssignmentSolver.INFEASIBLE : random.nextInt(50);
+                }
+            }
+            int[][] copy = new int[rows][];
+            for (int i = 0; i < rows; i++) {
+                copy[i] = Arrays.copyOf(cost[i], cols);
+            }
+            int[] match = solver.solve(rows, cols);
+            boolean[] taken = new boolean[cols];
+            int total = 0;
+            for (int i = 0; i < rows; i++) {
+                assertFalse(taken[match[i]], "Column assigned twice");
+                taken[match[i]] = true;
+                total += copy[i][match[i]];
+            }
+            assertEquals(bruteForce(copy, 0, new boolean[cols]), total, "Trial " + trial);
+        }
+    }
+
+    @Test
+    void reusesMatrixOfSmallerSize() {
+        AssignmentSolver solver = new AssignmentSolver();
+        int[][] big = solver.matrix(4, 6);
+        int[][] small = solver.matrix(2, 3);
+        assertSame(big, small);
+        small[0][0] = 9;
+        small[0][1] = 1;
+        small[0][2] = 9;
+        small[1][0] = 1;
+        small[1][1] = 9;
+        small[1][2] = 9;
+        int[] match = solver.solve(2, 3);
+        assertEquals(1, match[0]);
+        assertEquals(0, match[1]);
+    }
+
+    /**
+     * Минимум суммы по всем размещениям строк в разные столбцы
+     */
+    private static int bruteForce(int[][] cost, int row, boolean[] taken) {
+        if (row == cost.length) {
+            return 0;
+        }
+        int best = Integer.MAX_VALUE;
+        for (int j = 0; j < taken.length; j++) {
+            if (!taken[j]) {
+                taken[j] = true;
+                best = Math.min(best, cost[row][j] + bruteForce(cost, row + 1, taken));
+                taken[j] = false;
+            }
+        }
+        return best;
+    }
+}
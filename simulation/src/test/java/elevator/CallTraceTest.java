@@ -0,0 +1,173 @@
+package elevator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CallTraceTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTripsHallAndCarCalls() throws IOException {
+        Path trace = dir.resolve("calls.trace");
+        try (CallTrace.Writer writer = new CallTrace.Writer(trace)) {
+            writer.writeHallCall(0, 5, Direction.UP);
+            writer.writeCarCall(10, 2, 9);
+            writer.writeHallCall(10, 12, Direction.DOWN);
+        }
+        try (CallTrace.Reader reader = new CallTrace.Reader(trace)) {
+            assertEquals(3, reader.getRecordCount());
+            assertEquals(12, reader.getMaxFloor());
+            assertEquals(3, reader.getElevatorCount());
+            assertEquals(10, reader.getDurationMillis());
+
+            assertTrue(reader.next());
+            assertEquals(0, reader.time());
+            assertTrue(reader.isHallCall());
+            assertEquals(5, reader.floor());
+            assertEquals(Direction.UP, reader.direction());
+
+            assertTrue(reader.next());
+            assertEquals(10, reader.time());
+            assertFalse(reader.isHallCall());
+            assertEquals(9, reader.floor());
+            assertEquals(2, reader.elevator());
+
+            assertTrue(reader.next());
+            assertEquals(Direction.DOWN, reader.direction());
+            assertEquals(12, reader.floor());
+            assertFalse(reader.next());
+        }
+    }
+
+    @Test
+    void readsAcrossWindowBoundaries() throws IOException {
+        Path trace = dir.resolve("windows.trace");
+        int records = 1000;
+        writeSequence(trace, records);
+        // Окно в 3 записи: переотображение на каждой третьей записи и неполное последнее окно
+        try (CallTrace.Reader reader = new CallTrace.Reader(trace, 3 * CallTrace.RECORD_BYTES)) {
+            assertSequence(reader, records);
+        }
+    }
+
+    @Test
+    void readsAcrossDefaultWindowOf64Megabytes() throws IOException {
+        Path trace = dir.resolve("large.trace");
+        int records = (int) (64L * 1024 * 1024 / CallTrace.RECORD_BYTES) + 1000; // Дальше первого окна
+        writeSequence(trace, records);
+        assertTrue(Files.size(trace) > 64L * 1024 * 1024);
+        try (CallTrace.Reader reader = new CallTrace.Reader(trace)) {
+            assertSequence(reader, records);
+        }
+    }
+
+    @Test
+    void rejectsUnsortedTrace() throws IOException {
+        Path trace = dir.resolve("unsorted.trace");
+        writeSequence(trace, 4);
+        // Время третьей записи меньше, чем у второй
+        try (FileChannel channel = FileChannel.open(trace, StandardOpenOption.WRITE)) {
+            ByteBuffer time = ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN).putLong(0, 0);
+            channel.write(time, CallTrace.HEADER_BYTES + 2L * CallTrace.RECORD_BYTES);
+        }
+        try (CallTrace.Reader reader = new CallTrace.Reader(trace)) {
+            assertTrue(reader.next());
+            assertTrue(reader.next());
+            assertThrows(IllegalStateException.class, reader::next);
+        }
+    }
+
+    @Test
+    void writerRejectsOutOfOrderCalls() throws IOException {
+        try (CallTrace.Writer writer = new CallTrace.Writer(dir.resolve("order.trace"))) {
+            writer.writeHallCall(5, 2, Direction.UP);
+            assertThrows(IllegalArgumentException.class, () -> writer.writeHallCall(4, 3, Direction.UP));
+        }
+    }
+
+    @Test
+    void convertsCsvRelativeToFirstLine() throws IOException {
+        Path csv = dir.resolve("calls.csv");
+        Files.write(csv, List.of("time,type,floor,arg", "1000,HALL,3,UP", "1500,CAR,7,2", "# comment",
+                "2000,hall,4,down"), StandardCharsets.UTF_8);
+        Path trace = dir.resolve("calls.trace");
+
+        assertEquals(3, CallTrace.convertCsv(csv, trace));
+        try (CallTrace.Reader reader = new CallTrace.Reader(trace)) {
+            assertTrue(reader.next());
+            assertEquals(0, reader.time());
+            assertTrue(reader.next());
+            assertEquals(500, reader.time());
+            assertEquals(1, reader.elevator());
+            assertTrue(reader.next());
+            assertEquals(1000, reader.time());
+            assertEquals(Direction.DOWN, reader.direction());
+        }
+        try (var files = Files.list(dir)) {
+            assertEquals(2, files.count(), "Temporary file left behind");
+        }
+    }
+
+    @Test
+    void failedConversionLeavesNoTrace() throws IOException {
+        Path csv = dir.resolve("broken.csv");
+        Files.write(csv, List.of("0,HALL,3,UP", "10,HALL,oops,UP"), StandardCharsets.UTF_8);
+        Path trace = dir.resolve("broken.trace");
+
+        assertThrows(IOException.class, () -> CallTrace.convertCsv(csv, trace));
+        assertFalse(Files.exists(trace));
+        try (var files = Files.list(dir)) {
+            assertEquals(1, files.count(), "Temporary file left behind");
+        }
+    }
+
+    @Test
+    void failedConversionKeepsPreviousTrace() throws IOException {
+        Path trace = dir.resolve("kept.trace");
+        writeSequence(trace, 5);
+        long size = Files.size(trace);
+        Path csv = dir.resolve("unsorted.csv");
+        Files.write(csv, List.of("10,HALL,3,UP", "5,HALL,4,UP"), StandardCharsets.UTF_8);
+
+        assertThrows(IOException.class, () -> CallTrace.convertCsv(csv, trace));
+        assertEquals(size, Files.size(trace));
+    }
+
+    /**
+     * Вызовы с этажа: время i, этаж 1 + i % 50, направление чередуется
+     */
+    private static void writeSequence(Path trace, int records) throws IOException {
+        try (CallTrace.Writer writer = new CallTrace.Writer(trace)) {
+            for (int i = 0; i < records; i++) {
+                writer.writeHallCall(i, 1 + i % 50, (i & 1) == 0 ? Direction.UP : Direction.DOWN);
+            }
+        }
+    }
+
+    private static void assertSequence(CallTrace.Reader reader, int records) {
+        assertEquals(records, reader.getRecordCount());
+        for (int i = 0; i < records; i++) {
+            assertTrue(reader.next(), "Record " + i);
+            assertEquals(i, reader.time());
+            assertEquals(1 + i % 50, reader.floor());
+            assertEquals((i & 1) == 0 ? Direction.UP : Direction.DOWN, reader.direction());
+        }
+        assertFalse(reader.next());
+    }
+}
@@ -0,0 +1,89 @@
+package elevator;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class DispatcherPlanTest {
+    private static final int FLOORS = 20;
+    private static final int CAPACITY = new Elevator(0, FLOORS, new VirtualClock(0), quietLogger()).getMaxCapacity();
+
+    @Test
+    void optimalUsesFreeCarWhenOthersAreFull() {
+        Dispatcher dispatcher = dispatcher(4, DispatchStrategy.OPTIMAL);
+        long[] states = new long[4];
+        for (int car = 0; car < 3; car++) {
+            states[car] = full(2);
+        }
+        states[3] = ElevatorSnapshot.pack(1, Direction.NONE, ElevatorStatus.IDLE, 0, 0);
+
+        int[] plan = dispatcher.planAssignment(states, calls(new int[] { 5, 8 }));
+
+        assertArrayEquals(new int[] { 3, 3 }, plan);
+    }
+
+    @Test
+    void optimalMatchesGreedyFeasibilityWithFullCars() {
+        SplittableRandom random = new SplittableRandom(11);
+        for (int trial = 0; trial < 500; trial++) {
+            int fleetSize = 1 + random.nextInt(6);
+            long[] states = new long[fleetSize];
+            Dispatcher optimal = dispatcher(fleetSize, DispatchStrategy.OPTIMAL);
+            for (int car = 0; car < fleetSize; car++) {
+                states[car] = random.nextInt(3) == 0
+                        ? full(1 + random.nextInt(FLOORS))
+                        : ElevatorSnapshot.pack(1 + random.nextInt(FLOORS), Direction.NONE, ElevatorStatus.IDLE, 0, 0);
+            }
+            int[] floors = new int[1 + random.nextInt(2 * fleetSize)];
+            for (int i = 0; i < floors.length; i++) {
+                floors[i] = 1 + random.nextInt(FLOORS);
+            }
+
+            int[] plan = optimal.planAssignment(states.clone(), calls(floors));
+            int[] greedy = dispatcher(fleetSize, DispatchStrategy.GREEDY).planAssignment(states.clone(), calls(floors));
+
+            for (int i = 0; i < plan.length; i++) {
+                assertEquals(greedy[i] >= 0, plan[i] >= 0, "Trial " + trial + ", call " + i);
+                if (plan[i] >= 0) {
+                    assertTrue(ElevatorSnapshot.passengers(states[plan[i]]) < CAPACITY, "Call planned to a full car");
+                }
+            }
+        }
+    }
+
+    private static long full(int floor) {
+        return ElevatorSnapshot.pack(floor, Direction.UP, ElevatorStatus.MOVING, CAPACITY, 1);
+    }
+
+    private static List<ExternalRequest> calls(int[] floors) {
+        List<ExternalRequest> batch = new ArrayList<>();
+        for (int floor : floors) {
+            batch.add(new ExternalRequest(floor, floor == FLOORS ? Direction.DOWN : Direction.UP, 0));
+        }
+        return batch;
+    }
+
+    private static Dispatcher dispatcher(int fleetSize, DispatchStrategy strategy) {
+        Logger logger = quietLogger();
+        VirtualClock clock = new VirtualClock(0);
+        List<Elevator> elevators = new ArrayList<>();
+        for (int i = 0; i < fleetSize; i++) {
+            elevators.add(new Elevator(i, FLOORS, clock, logger));
+        }
+        Dispatcher dispatcher = new Dispatcher(elevators, FLOORS, clock, logger);
+        dispatcher.setStrategy(strategy);
+        return dispatcher;
+    }
+
+    private static Logger quietLogger() {
+        Logger logger = new Logger("test");
+        logger.configureLevels("SYSTEM=OFF,DISPATCHER=OFF,ELEVATOR=OFF,INFO=OFF");
+        return logger;
+    }
+}
@@ -0,0 +1,72 @@
+package elevator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class ElevatorJourneyTest {
+    private static final int FLOORS = 12;
+
+    @Test
+    void rideBehindTheCarIsRecorded() {
+        VirtualClock clock = new VirtualClock(0);
+        Elevator elevator = elevator(clock, 1);
+        elevator.addInternalRequest(6);
+        while (elevator.getCurrentFloor() < 3) {
+            advance(clock, elevator.step());
+        }
+        assertEquals(Direction.UP, elevator.getDirection());
+
+        // Пассажир едет на этаж позади лифта: поездка завершится только после разворота
+        elevator.addInternalRequest(1);
+        runUntilIdle(clock, elevator);
+
+        assertEquals(1, elevator.getCurrentFloor());
+        assertEquals(2, elevator.getJourneyTimes().getCount());
+    }
+
+    @Test
+    void everyServedCarCallIsRecorded() {
+        SplittableRandom random = new SplittableRandom(123);
+        for (int trial = 0; trial < 50; trial++) {
+            VirtualClock clock = new VirtualClock(0);
+            Elevator elevator = elevator(clock, trial);
+            int accepted = 0;
+            for (int i = 0; i < 200; i++) {
+                if (random.nextInt(4) == 0 && elevator.addInternalRequest(1 + random.nextInt(FLOORS))) {
+                    accepted++;
+                }
+                long delay = elevator.step();
+                advance(clock, delay < 0 ? 1000 : delay);
+            }
+            runUntilIdle(clock, elevator);
+
+            assertTrue(accepted > 0);
+            assertEquals(accepted, elevator.getJourneyTimes().getCount(), "Trial " + trial);
+        }
+    }
+
+    private static Elevator elevator(VirtualClock clock, long seed) {
+        Logger logger = new Logger("test");
+        logger.configureLevels("SYSTEM=OFF,DISPATCHER=OFF,ELEVATOR=OFF,INFO=OFF");
+        return new Elevator(0, FLOORS, clock, logger, new SplittableRandom(seed));
+    }
+
+    private static void runUntilIdle(VirtualClock clock, Elevator elevator) {
+        for (int i = 0; i < 10_000; i++) {
+            long delay = elevator.step();
+            if (delay < 0) {
+                return;
+            }
+            advance(clock, delay);
+        }
+        throw new AssertionError("Elevator did not become idle");
+    }
+
+    private static void advance(VirtualClock clock, long delay) {
+        clock.advanceTo(clock.getElapsedMillis() + Math.max(0, delay));
+    }
+}
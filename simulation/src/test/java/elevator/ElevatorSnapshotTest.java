@@ -0,0 +1,69 @@
+package elevator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+class ElevatorSnapshotTest {
+
+    @Test
+    void roundTripAtFieldLimits() {
+        int[] floors = { 0, 1, 255, 256, ElevatorSnapshot.MAX_FLOOR };
+        int[] counts = { 0, 1, 254, 255 };
+        for (int floor : floors) {
+            for (Direction direction : Direction.values()) {
+                for (ElevatorStatus status : ElevatorStatus.values()) {
+                    for (int passengers : counts) {
+                        int stops = passengers == 255 ? 0xFFFF : passengers * 257;
+                        long state = ElevatorSnapshot.pack(floor, direction, status, passengers, stops);
+                        assertEquals(floor, ElevatorSnapshot.floor(state));
+                        assertEquals(direction, ElevatorSnapshot.direction(state));
+                        assertEquals(status, ElevatorSnapshot.status(state));
+                        assertEquals(passengers, ElevatorSnapshot.passengers(state));
+                        assertEquals(stops, ElevatorSnapshot.stops(state));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void withStopsKeepsOtherFields() {
+        long state = ElevatorSnapshot.pack(ElevatorSnapshot.MAX_FLOOR, Direction.DOWN, ElevatorStatus.DOORS_CLOSING,
+                255, 0xFFFF);
+        long updated = ElevatorSnapshot.withStops(state, 7);
+        assertEquals(7, ElevatorSnapshot.stops(updated));
+        assertEquals(ElevatorSnapshot.MAX_FLOOR, ElevatorSnapshot.floor(updated));
+        assertEquals(Direction.DOWN, ElevatorSnapshot.direction(updated));
+        assertEquals(ElevatorStatus.DOORS_CLOSING, ElevatorSnapshot.status(updated));
+        assertEquals(255, ElevatorSnapshot.passengers(updated));
+        assertEquals(state, ElevatorSnapshot.withStops(updated, 0xFFFF));
+    }
+
+    @Test
+    void countersAreClampedToFieldWidth() {
+        long state = ElevatorSnapshot.pack(3, Direction.UP, ElevatorStatus.MOVING, 300, 70_000);
+        assertEquals(255, ElevatorSnapshot.passengers(state));
+        assertEquals(0xFFFF, ElevatorSnapshot.stops(state));
+        assertEquals(3, ElevatorSnapshot.floor(state));
+        assertEquals(ElevatorStatus.MOVING, ElevatorSnapshot.status(state));
+
+        state = ElevatorSnapshot.pack(3, Direction.UP, ElevatorStatus.MOVING, -1, -5);
+        assertEquals(0, ElevatorSnapshot.passengers(state));
+        assertEquals(0, ElevatorSnapshot.stops(state));
+        assertEquals(Direction.UP, ElevatorSnapshot.direction(state));
+        assertEquals(0, ElevatorSnapshot.stops(ElevatorSnapshot.withStops(state, -1)));
+        assertEquals(0xFFFF, ElevatorSnapshot.stops(ElevatorSnapshot.withStops(state, Integer.MAX_VALUE)));
+    }
+
+    @Test
+    void floorOutsideFieldIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> ElevatorSnapshot.pack(ElevatorSnapshot.MAX_FLOOR + 1, Direction.NONE, ElevatorStatus.IDLE, 0, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> ElevatorSnapshot.pack(-1, Direction.NONE, ElevatorStatus.IDLE, 0, 0));
+        // Здание выше, чем помещается в снимок, отклоняется сразу, а не на 65536-м этаже
+        assertThrows(IllegalArgumentException.class, () -> new Elevator(0, ElevatorSnapshot.MAX_FLOOR + 1));
+    }
+}
@@ -0,0 +1,23 @@
+package elevator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class ElevatorTest {
+
+    @Test
+    void floorInSeveralTablesIsOneStop() {
+        Logger logger = new Logger("test");
+        logger.configureLevels("SYSTEM=OFF,DISPATCHER=OFF,ELEVATOR=OFF,INFO=OFF");
+        Elevator elevator = new Elevator(0, 10, new VirtualClock(0), logger);
+
+        elevator.addInternalRequest(6);
+        elevator.addExternalRequest(6, Direction.UP);
+        elevator.addExternalRequest(6, Direction.DOWN);
+        assertEquals(1, ElevatorSnapshot.stops(elevator.getSnapshot()));
+
+        elevator.addExternalRequest(8, Direction.DOWN);
+        assertEquals(2, ElevatorSnapshot.stops(elevator.getSnapshot()));
+    }
+}
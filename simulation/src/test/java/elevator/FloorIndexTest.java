@@ -0,0 +1,92 @@
+package elevator;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class FloorIndexTest {
+    private static final ElevatorStatus[] STATUSES = ElevatorStatus.values();
+
+    @Test
+    void groupsCarsByFloorInAscendingOrder() {
+        FloorIndex index = new FloorIndex(5);
+        long[] states = {
+                state(3, ElevatorStatus.IDLE, 0),
+                state(1, ElevatorStatus.IDLE, 0),
+                state(3, ElevatorStatus.MOVING, 0),
+                state(5, ElevatorStatus.IDLE, 0),
+        };
+        index.rebuild(states);
+
+        assertEquals(1, index.end(1) - index.begin(1));
+        assertEquals(1, index.car(index.begin(1)));
+        assertEquals(0, index.end(2) - index.begin(2));
+        assertEquals(0, index.car(index.begin(3)));
+        assertEquals(2, index.car(index.begin(3) + 1));
+        assertEquals(3, index.car(index.begin(5)));
+        assertEquals(4, index.end(5));
+    }
+
+    /**
+     * Индексный выбор дает тот же план, что и полный проход, по одним и тем же снимкам
+     */
+    @Test
+    void indexedPlanMatchesLinearScan() {
+        SplittableRandom random = new SplittableRandom(3);
+        int calls = 0;
+        for (int trial = 0; trial < 400; trial++) {
+            int floors = 2 + random.nextInt(60);
+            int fleetSize = 1 + random.nextInt(40);
+            List<Elevator> elevators = new ArrayList<>();
+            Logger logger = quietLogger();
+            VirtualClock clock = new VirtualClock(0);
+            for (int i = 0; i < fleetSize; i++) {
+                elevators.add(new Elevator(i, floors, clock, logger));
+            }
+            int capacity = elevators.get(0).getMaxCapacity();
+            long[] states = new long[fleetSize];
+            for (int i = 0; i < fleetSize; i++) {
+                ElevatorStatus status = STATUSES[random.nextInt(STATUSES.length)];
+                Direction direction = status == ElevatorStatus.IDLE ? Direction.NONE
+                        : random.nextBoolean() ? Direction.UP : Direction.DOWN;
+                int passengers = random.nextInt(5) == 0 ? capacity : random.nextInt(capacity);
+                states[i] = ElevatorSnapshot.pack(1 + random.nextInt(floors), direction, status, passengers,
+                        random.nextInt(4));
+            }
+            List<ExternalRequest> batch = new ArrayList<>();
+            int batchSize = 1 + random.nextInt(30);
+            for (int i = 0; i < batchSize; i++) {
+                int floor = 1 + random.nextInt(floors);
+                Direction direction = floor == floors ? Direction.DOWN
+                        : floor == 1 ? Direction.UP : random.nextBoolean() ? Direction.UP : Direction.DOWN;
+                batch.add(new ExternalRequest(floor, direction, 0));
+            }
+            calls += batchSize;
+
+            Dispatcher dispatcher = new Dispatcher(elevators, floors, clock, logger);
+            dispatcher.setIndexedSelection(false);
+            int[] linear = dispatcher.planAssignment(states.clone(), batch);
+            dispatcher.setIndexedSelection(true);
+            int[] indexed = dispatcher.planAssignment(states.clone(), batch);
+
+            assertArrayEquals(linear, indexed, "Trial " + trial);
+        }
+        assertTrue(calls > 1000);
+    }
+
+    private static long state(int floor, ElevatorStatus status, int passengers) {
+        return ElevatorSnapshot.pack(floor, Direction.NONE, status, passengers, 0);
+    }
+
+    private static Logger quietLogger() {
+        Logger logger = new Logger("test");
+        logger.configureLevels("SYSTEM=OFF,DISPATCHER=OFF,ELEVATOR=OFF,INFO=OFF");
+        return logger;
+    }
+}
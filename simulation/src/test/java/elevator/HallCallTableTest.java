@@ -0,0 +1,91 @@
+package elevator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class HallCallTableTest {
+
+    @Test
+    void repeatedPressIsAbsorbed() {
+        HallCallTable table = new HallCallTable(10);
+        assertTrue(table.press(5, Direction.UP, 100));
+        assertFalse(table.press(5, Direction.UP, 200)); // Та же кнопка - поглощено
+        assertTrue(table.press(5, Direction.DOWN, 300)); // Другое направление - отдельный вызов
+        assertEquals(2, table.getActiveCount());
+
+        // После выполнения кнопку можно нажать снова
+        assertEquals(900, table.serve(5, Direction.UP, 1000));
+        assertFalse(table.isActive(5, Direction.UP));
+        assertTrue(table.press(5, Direction.UP, 1100));
+        assertEquals(2, table.getActiveCount());
+    }
+
+    @Test
+    void serveReturnsWaitFromFirstPress() {
+        HallCallTable table = new HallCallTable(10);
+        table.press(3, Direction.DOWN, 1000);
+        table.press(3, Direction.DOWN, 4000);
+        assertEquals(5000, table.serve(3, Direction.DOWN, 6000)); // От первого нажатия, а не от последнего
+        assertEquals(-1, table.serve(3, Direction.DOWN, 7000)); // Вызова уже нет
+        assertEquals(-1, table.serve(7, Direction.UP, 7000));
+
+        table.press(4, Direction.UP, 2000);
+        assertEquals(1000, table.serve(4, Direction.UP, 3000));
+        assertEquals(2, table.getServedCount());
+        assertEquals(3000, table.getAverageWaitMillis());
+        assertEquals(5000, table.getMaxWaitMillis());
+    }
+
+    @Test
+    void clearDropsCallWithoutCountingWait() {
+        HallCallTable table = new HallCallTable(10);
+        table.press(6, Direction.UP, 500);
+        assertEquals(500, table.clear(6, Direction.UP));
+        assertEquals(HallCallTable.NONE, table.clear(6, Direction.UP));
+        assertEquals(0, table.getServedCount());
+        assertEquals(0, table.getActiveCount());
+    }
+
+    @Test
+    void edgeFloorsHaveSingleDirection() {
+        HallCallTable table = new HallCallTable(10);
+        // С первого этажа только вверх, с последнего только вниз
+        assertTrue(table.press(1, Direction.DOWN, 100));
+        assertFalse(table.press(1, Direction.UP, 200));
+        assertTrue(table.isActive(1, Direction.UP));
+        assertTrue(table.press(10, Direction.UP, 300));
+        assertFalse(table.press(10, Direction.DOWN, 400));
+        assertEquals(2, table.getActiveCount());
+
+        assertEquals(400, table.serve(1, Direction.UP, 500));
+        assertEquals(300, table.serve(10, Direction.NONE, 600));
+        assertEquals(0, table.getActiveCount());
+    }
+
+    @Test
+    void edgeFloorsMatchWaitingPassengers() {
+        HallCallTable table = new HallCallTable(10);
+        WaitingPassengers passengers = table.getPassengers();
+        passengers.arrive(1, 5, 0); // Едет вверх
+        passengers.arrive(10, 2, 0); // Едет вниз
+
+        // Кнопка, нажатая "не в ту сторону" на крайнем этаже, - тот же вызов,
+        // и за ним те же пассажиры
+        table.press(1, Direction.DOWN, 0);
+        table.press(10, Direction.UP, 0);
+        assertTrue(passengers.hasWaiting(1, Direction.DOWN));
+        assertTrue(passengers.hasWaiting(10, Direction.UP));
+
+        int[] destinations = new int[4];
+        long[] arrivals = new long[4];
+        int riders = passengers.board(1, Direction.DOWN, destinations, arrivals, 0, 4, 100);
+        assertEquals(1, riders);
+        assertEquals(5, destinations[0]);
+        assertEquals(100, table.serve(1, Direction.DOWN, 100));
+        assertFalse(passengers.hasWaiting(1, Direction.UP));
+        assertTrue(table.isActive(10, Direction.DOWN));
+    }
+}
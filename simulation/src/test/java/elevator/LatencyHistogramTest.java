@@ -0,0 +1,90 @@
+package elevator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+    @Test
+    void bucketsAreContiguous() {
+        assertEquals(0, LatencyHistogram.lowerBound(0));
+        for (int i = 0; i < LatencyHistogram.BUCKETS; i++) {
+            long low = LatencyHistogram.lowerBound(i);
+            long high = low + LatencyHistogram.width(i) - 1;
+            assertEquals(i, LatencyHistogram.index(low), "Lower bound of bucket " + i);
+            assertEquals(i, LatencyHistogram.index(high), "Upper bound of bucket " + i);
+            if (i + 1 < LatencyHistogram.BUCKETS) {
+                assertEquals(high + 1, LatencyHistogram.lowerBound(i + 1), "Gap after bucket " + i);
+            }
+        }
+        assertEquals(LatencyHistogram.BUCKETS - 1, LatencyHistogram.index(LatencyHistogram.MAX_VALUE));
+    }
+
+    @Test
+    void boundariesBetweenLinearAndLogBuckets() {
+        assertEquals(15, LatencyHistogram.index(15));
+        assertEquals(16, LatencyHistogram.index(16));
+        assertEquals(31, LatencyHistogram.index(31));
+        // С 32 корзина шириной 2, с 64 - шириной 4
+        assertEquals(32, LatencyHistogram.index(32));
+        assertEquals(32, LatencyHistogram.index(33));
+        assertEquals(33, LatencyHistogram.index(34));
+        assertEquals(47, LatencyHistogram.index(63));
+        assertEquals(48, LatencyHistogram.index(64));
+        assertEquals(48, LatencyHistogram.index(67));
+        assertEquals(49, LatencyHistogram.index(68));
+    }
+
+    @Test
+    void smallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int value = 1; value <= 10; value++) {
+            histogram.record(value);
+        }
+        assertEquals(10, histogram.getCount());
+        assertEquals(5, histogram.getPercentile(0.5));
+        assertEquals(9, histogram.getPercentile(0.9));
+        assertEquals(10, histogram.getPercentile(1));
+        assertEquals(1, histogram.getPercentile(0));
+        assertEquals(55, histogram.getSum());
+    }
+
+    @Test
+    void percentilesWithinRelativeError() {
+        SplittableRandom random = new SplittableRandom(5);
+        long[] values = new long[20_000];
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextLong(1, 10_000_000);
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+        for (double quantile : new double[] { 0.5, 0.9, 0.99, 0.999 }) {
+            long exact = values[(int) Math.ceil(quantile * values.length) - 1];
+            long estimate = histogram.getPercentile(quantile);
+            assertTrue(Math.abs(estimate - exact) <= exact / 32 + 1,
+                    "p" + quantile + ": " + estimate + " vs " + exact);
+        }
+        assertEquals(values[values.length - 1], histogram.getMax());
+        assertEquals(values[values.length - 1], histogram.getPercentile(1), values[values.length - 1] / 32.0);
+    }
+
+    @Test
+    void emptyAndOutOfRange() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getPercentile(0.99));
+        assertThrows(IllegalArgumentException.class, () -> histogram.getPercentile(1.5));
+
+        histogram.record(-5); // Отрицательное время считается нулем
+        histogram.record(1L << 40); // Больше диапазона: последняя корзина, максимум точный
+        assertEquals(0, histogram.getPercentile(0.5));
+        assertEquals(1L << 40, histogram.getMax());
+        assertTrue(histogram.getPercentile(1) >= LatencyHistogram.lowerBound(LatencyHistogram.BUCKETS - 1));
+    }
+}
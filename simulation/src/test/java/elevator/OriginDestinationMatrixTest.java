@@ -0,0 +1,85 @@
+package elevator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class OriginDestinationMatrixTest {
+
+    @Test
+    void interfloorNeverSamplesZeroWeightPairs() {
+        OriginDestinationMatrix matrix = OriginDestinationMatrix.office(10, 0, 0, 1);
+        SplittableRandom random = new SplittableRandom(1);
+        for (int i = 0; i < 200_000; i++) {
+            int trip = matrix.sample(random);
+            int origin = matrix.origin(trip);
+            int destination = matrix.destination(trip);
+            assertTrue(origin >= 2 && destination >= 2 && origin != destination,
+                    "Zero-weight trip " + origin + " -> " + destination);
+        }
+    }
+
+    @Test
+    void frequenciesMatchWeightsOnSmallBuilding() {
+        assertOffice(10, 0.3, 0.3, 0.4, 1_000_000);
+    }
+
+    @Test
+    void frequenciesMatchWeightsOnTallBuilding() {
+        assertOffice(100, 0.1, 0.1, 0.8, 4_000_000);
+    }
+
+    @Test
+    void frequenciesMatchIrregularWeights() {
+        double[][] weights = new double[5][5];
+        weights[1][4] = 5;
+        weights[3][1] = 1;
+        weights[4][2] = 2;
+        weights[2][2] = 100; // Диагональ не учитывается
+        assertFrequencies(new OriginDestinationMatrix(weights), weights, 400_000);
+    }
+
+    private static void assertOffice(int floors, double upPeak, double downPeak, double interfloor, int samples) {
+        assertFrequencies(OriginDestinationMatrix.office(floors, upPeak, downPeak, interfloor),
+                OriginDestinationMatrix.officeWeights(floors, upPeak, downPeak, interfloor), samples);
+    }
+
+    /**
+     * Частота каждой пары в пределах 5 стандартных отклонений от ее доли в весах
+     */
+    private static void assertFrequencies(OriginDestinationMatrix matrix, double[][] weights, int samples) {
+        int floors = weights.length - 1;
+        double total = 0;
+        for (int origin = 1; origin <= floors; origin++) {
+            for (int destination = 1; destination <= floors; destination++) {
+                if (origin != destination) {
+                    total += weights[origin][destination];
+                }
+            }
+        }
+        long[][] counts = new long[floors + 1][floors + 1];
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < samples; i++) {
+            int trip = matrix.sample(random);
+            counts[matrix.origin(trip)][matrix.destination(trip)]++;
+        }
+        for (int origin = 0; origin <= floors; origin++) {
+            for (int destination = 0; destination <= floors; destination++) {
+                double p = origin == 0 || destination == 0 || origin == destination
+                        ? 0 : weights[origin][destination] / total;
+                double expected = p * samples;
+                double sigma = Math.sqrt(samples * p * (1 - p));
+                String pair = origin + " -> " + destination;
+                if (p == 0) {
+                    assertEquals(0, counts[origin][destination], "Zero-weight trip sampled: " + pair);
+                } else {
+                    assertTrue(Math.abs(counts[origin][destination] - expected) <= 5 * sigma + 1,
+                            pair + ": " + counts[origin][destination] + " samples, expected " + expected);
+                }
+            }
+        }
+    }
+}
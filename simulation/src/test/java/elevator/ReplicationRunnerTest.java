@@ -0,0 +1,36 @@
+package elevator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class ReplicationRunnerTest {
+    private static final long HOUR = 60L * 60 * 1000;
+
+    @Test
+    void trafficProfileDrivesReplications() throws InterruptedException {
+        TrafficProfile profile = TrafficProfile.constant("interfloor", 10, 600, HOUR);
+        ReplicationRunner.Report report = new ReplicationRunner(4, 10, DispatchStrategy.GREEDY, profile, HOUR, 2)
+                .run(4, 42);
+
+        // Около 600 пассажиров за час; часть вызовов склеивается с уже поданными
+        double served = report.mean(ReplicationRunner.Kpi.SERVED_CALLS);
+        double coalesced = report.mean(ReplicationRunner.Kpi.COALESCED);
+        assertTrue(served > 300 && served + coalesced < 700, "Served " + served + ", coalesced " + coalesced);
+    }
+
+    @Test
+    void sameSeedGivesSameReportRegardlessOfParallelism() throws InterruptedException {
+        TrafficProfile profile = TrafficProfile.constant("up-peak", 12, 900, HOUR);
+        ReplicationRunner.Report serial = new ReplicationRunner(3, 12, DispatchStrategy.GREEDY, profile, HOUR, 1)
+                .run(3, 7);
+        ReplicationRunner.Report parallel = new ReplicationRunner(3, 12, DispatchStrategy.GREEDY, profile, HOUR, 3)
+                .run(3, 7);
+
+        for (ReplicationRunner.Kpi kpi : ReplicationRunner.Kpi.values()) {
+            assertEquals(serial.mean(kpi), parallel.mean(kpi), kpi.name());
+            assertEquals(serial.halfWidth(kpi), parallel.halfWidth(kpi), kpi.name());
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package elevator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class SimulationClockTest {
+
+    @Test
+    void realTimeClockIsMonotonicAndNearSystemTime() {
+        SimulationClock clock = RealTimeClock.INSTANCE;
+        assertTrue(Math.abs(clock.currentTimeMillis() - System.currentTimeMillis()) < 1000);
+        long previousMillis = clock.currentTimeMillis();
+        long previousNanos = clock.nanoTime();
+        for (int i = 0; i < 100_000; i++) {
+            long millis = clock.currentTimeMillis();
+            long nanos = clock.nanoTime();
+            assertTrue(millis >= previousMillis && nanos >= previousNanos);
+            previousMillis = millis;
+            previousNanos = nanos;
+        }
+    }
+
+    @Test
+    void scaledClockRunsFasterButMeasuresRealNanos() throws InterruptedException {
+        ScaledClock clock = new ScaledClock(100);
+        long startMillis = clock.currentTimeMillis();
+        long startNanos = clock.nanoTime();
+        Thread.sleep(50);
+        long simulated = clock.currentTimeMillis() - startMillis;
+        long real = clock.nanoTime() - startNanos;
+
+        // 50 мс реального времени - не меньше 5 секунд симуляции; замер затрат в реальных наносекундах
+        assertTrue(simulated >= 5000, "Simulated " + simulated + " ms");
+        assertTrue(real >= 50_000_000 && real < 5_000_000_000L, "Real " + real + " ns");
+        assertEquals(10_000_000, clock.toRealNanos(1000));
+    }
+
+    @Test
+    void virtualClockMovesOnlyOnAdvance() {
+        VirtualClock clock = new VirtualClock(1_000);
+        assertEquals(1_000, clock.currentTimeMillis());
+        clock.advanceTo(250);
+        assertEquals(1_250, clock.currentTimeMillis());
+        assertEquals(0, clock.toRealNanos(60_000));
+    }
+}
@@ -0,0 +1,122 @@
+package elevator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+class StopTableTest {
+
+    @Test
+    void sizeFollowsAddAndRemove() {
+        StopTable table = new StopTable(200);
+        assertTrue(table.isEmpty());
+        assertTrue(table.add(5));
+        assertFalse(table.add(5)); // Повторное добавление размер не меняет
+        assertTrue(table.add(64));
+        assertTrue(table.add(200));
+        assertEquals(3, table.size());
+
+        assertTrue(table.remove(64));
+        assertFalse(table.remove(64));
+        assertFalse(table.remove(0)); // Вне здания - просто нет такого этажа
+        assertFalse(table.remove(201));
+        assertEquals(2, table.size());
+
+        table.clear();
+        assertTrue(table.isEmpty());
+        assertEquals(-1, table.nextAbove(0));
+        assertEquals(-1, table.nextBelow(201));
+    }
+
+    @Test
+    void rejectsFloorsOutsideBuilding() {
+        StopTable table = new StopTable(10);
+        assertThrows(IllegalArgumentException.class, () -> table.add(0));
+        assertThrows(IllegalArgumentException.class, () -> table.add(11));
+        assertThrows(IllegalArgumentException.class, () -> new StopTable(0));
+        assertFalse(table.contains(0));
+        assertFalse(table.contains(11));
+    }
+
+    @Test
+    void firstAndLastFloor() {
+        StopTable table = new StopTable(10);
+        table.add(1);
+        table.add(10);
+        assertEquals(1, table.nextAbove(0));
+        assertEquals(10, table.nextAbove(1));
+        assertEquals(-1, table.nextAbove(10));
+        assertEquals(10, table.nextBelow(11));
+        assertEquals(1, table.nextBelow(10));
+        assertEquals(-1, table.nextBelow(1));
+    }
+
+    @Test
+    void searchCrossesWordBoundaries() {
+        // Этажи 63, 64 и 127, 128 лежат по разные стороны границ слов по 64 бита
+        StopTable table = new StopTable(300);
+        for (int floor : new int[] { 63, 64, 127, 128, 300 }) {
+            table.add(floor);
+        }
+        assertEquals(63, table.nextAbove(1));
+        assertEquals(64, table.nextAbove(63));
+        assertEquals(127, table.nextAbove(64));
+        assertEquals(128, table.nextAbove(127));
+        assertEquals(300, table.nextAbove(128));
+        assertEquals(-1, table.nextAbove(300));
+
+        assertEquals(128, table.nextBelow(300));
+        assertEquals(127, table.nextBelow(128));
+        assertEquals(64, table.nextBelow(127));
+        assertEquals(63, table.nextBelow(64));
+        assertEquals(-1, table.nextBelow(63));
+
+        table.remove(64);
+        table.remove(127);
+        assertEquals(128, table.nextAbove(63));
+        assertEquals(63, table.nextBelow(128));
+    }
+
+    @Test
+    void unionCountsSharedFloorsOnce() {
+        StopTable up = new StopTable(130);
+        StopTable down = new StopTable(130);
+        StopTable car = new StopTable(130);
+        up.add(5);
+        down.add(5);
+        car.add(5);
+        car.add(64);
+        down.add(130);
+        assertEquals(3, StopTable.unionSize(up, down, car));
+        assertEquals(0, StopTable.unionSize(new StopTable(130), new StopTable(130), new StopTable(130)));
+    }
+
+    @Test
+    void matchesSortedSet() {
+        SplittableRandom random = new SplittableRandom(4);
+        for (int maxFloor : new int[] { 1, 63, 64, 65, 128, 500 }) {
+            StopTable table = new StopTable(maxFloor);
+            TreeSet<Integer> expected = new TreeSet<>();
+            for (int i = 0; i < 2000; i++) {
+                int floor = 1 + random.nextInt(maxFloor);
+                if (random.nextBoolean()) {
+                    assertEquals(expected.add(floor), table.add(floor));
+                } else {
+                    assertEquals(expected.remove(floor), table.remove(floor));
+                }
+                assertEquals(expected.size(), table.size());
+                int probe = random.nextInt(maxFloor + 2);
+                Integer above = expected.higher(probe);
+                Integer below = expected.lower(probe);
+                assertEquals(above == null ? -1 : above, table.nextAbove(probe), "Above " + probe);
+                assertEquals(below == null ? -1 : below, table.nextBelow(probe), "Below " + probe);
+            }
+        }
+    }
+}
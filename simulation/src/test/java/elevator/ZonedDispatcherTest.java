@@ -0,0 +1,114 @@
+package elevator;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class ZonedDispatcherTest {
+
+    @Test
+    void uniformCallsGiveEvenZones() {
+        long[] calls = new long[13];
+        for (int floor = 1; floor <= 12; floor++) {
+            calls[floor] = 100;
+        }
+        ZonedDispatcher dispatcher = fromTraffic(6, 12, calls, 3);
+
+        assertArrayEquals(new int[] { 1, 5, 9 }, firstFloors(dispatcher));
+        assertArrayEquals(new int[] { 2, 2, 2 }, sizes(dispatcher));
+    }
+
+    @Test
+    void busyLobbyGetsItsOwnZoneAndMoreCars() {
+        long[] calls = new long[11];
+        calls[1] = 600;
+        for (int floor = 2; floor <= 10; floor++) {
+            calls[floor] = 50;
+        }
+        // Половина вызовов (525) набирается уже на вестибюле; лифты: 1 + 4 * 600 / 1050 = 3 и 1 + 4 * 450 / 1050 = 2,
+        // оставшийся лифт - первой зоне
+        ZonedDispatcher dispatcher = fromTraffic(6, 10, calls, 2);
+
+        assertArrayEquals(new int[] { 1, 2 }, firstFloors(dispatcher));
+        assertArrayEquals(new int[] { 4, 2 }, sizes(dispatcher));
+    }
+
+    @Test
+    void boundariesFollowCallQuantiles() {
+        long[] calls = new long[21];
+        for (int floor = 1; floor <= 20; floor++) {
+            calls[floor] = floor <= 5 ? 30 : 10; // 150 вызовов снизу, 150 на этажах 6-20
+        }
+        ZonedDispatcher dispatcher = fromTraffic(4, 20, calls, 2);
+
+        // Первый этаж, до которого набрана половина вызовов (150): зона 2 начинается с 6
+        assertArrayEquals(new int[] { 1, 6 }, firstFloors(dispatcher));
+        assertArrayEquals(new int[] { 2, 2 }, sizes(dispatcher));
+    }
+
+    @Test
+    void everyZoneKeepsAFloorAndACar() {
+        long[] calls = new long[11];
+        calls[10] = 1000;
+        ZonedDispatcher dispatcher = fromTraffic(7, 10, calls, 3);
+
+        assertArrayEquals(new int[] { 1, 9, 10 }, firstFloors(dispatcher));
+        assertArrayEquals(new int[] { 1, 1, 5 }, sizes(dispatcher));
+    }
+
+    @Test
+    void noCallsFallBackToEvenZones() {
+        ZonedDispatcher dispatcher = fromTraffic(5, 10, new long[11], 2);
+
+        assertArrayEquals(new int[] { 1, 6 }, firstFloors(dispatcher));
+        assertArrayEquals(new int[] { 3, 2 }, sizes(dispatcher));
+    }
+
+    @Test
+    void upPeakProfileConcentratesCallsOnLobby() {
+        TrafficProfile profile = TrafficProfile.constant("up-peak", 10, 1000, 60 * 60 * 1000);
+        long[] origins = profile.expectedOriginsPerFloor();
+
+        long total = 0;
+        for (long count : origins) {
+            total += count;
+        }
+        assertEquals(1000, total, 5);
+        assertEquals(850, origins[1], 1); // Подъем из вестибюля - 85% потока
+        ZonedDispatcher dispatcher = fromTraffic(8, 10, origins, 2);
+        assertArrayEquals(new int[] { 1, 2 }, firstFloors(dispatcher));
+        // Лифты: 1 + 6 * 850 / 1000 = 6 и 1 + 6 * 150 / 1000 = 1, оставшийся - вестибюлю
+        assertArrayEquals(new int[] { 7, 1 }, sizes(dispatcher));
+    }
+
+    private static ZonedDispatcher fromTraffic(int fleetSize, int floors, long[] calls, int zones) {
+        Logger logger = new Logger("test");
+        logger.configureLevels("SYSTEM=OFF,DISPATCHER=OFF,ELEVATOR=OFF,INFO=OFF");
+        VirtualClock clock = new VirtualClock(0);
+        List<Elevator> elevators = new ArrayList<>();
+        for (int i = 0; i < fleetSize; i++) {
+            elevators.add(new Elevator(i, floors, clock, logger));
+        }
+        return ZonedDispatcher.fromTraffic(elevators, floors, clock, logger, calls, zones);
+    }
+
+    private static int[] firstFloors(ZonedDispatcher dispatcher) {
+        int[] floors = new int[dispatcher.getZoneCount()];
+        for (int zone = 0; zone < floors.length; zone++) {
+            floors[zone] = dispatcher.getZoneFirstFloor(zone);
+        }
+        return floors;
+    }
+
+    private static int[] sizes(ZonedDispatcher dispatcher) {
+        int[] sizes = new int[dispatcher.getZoneCount()];
+        for (int zone = 0; zone < sizes.length; zone++) {
+            sizes[zone] = dispatcher.getZoneElevators(zone).size();
+        }
+        return sizes;
+    }
+}